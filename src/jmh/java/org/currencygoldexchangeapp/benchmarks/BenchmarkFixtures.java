@@ -0,0 +1,82 @@
+package org.currencygoldexchangeapp.benchmarks;
+
+import org.currencygoldexchangeapp.datamodels.ExchangeRateTable;
+import org.currencygoldexchangeapp.datamodels.GoldValue;
+import org.currencygoldexchangeapp.handlers.ExchangeRateAPIHandler;
+import org.currencygoldexchangeapp.handlers.GoldValueAPIHandler;
+import org.currencygoldexchangeapp.metrics.ConversionStatistics;
+import org.currencygoldexchangeapp.utils.JSONMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkFixtures {
+    private BenchmarkFixtures() {
+    }
+
+    static byte[] loadResource(String fileName) {
+        try (InputStream inputStream = BenchmarkFixtures.class.getClassLoader().getResourceAsStream(fileName)) {
+            if (inputStream == null) {
+                throw new IOException("Failed to load benchmark fixture: " + fileName);
+            }
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static ExchangeRateTable loadExchangeRateTable() {
+        return new JSONMapper().deserializeJsonToExchangeRateTable(new String(loadResource("currencies_response.json")));
+    }
+
+    static List<GoldValue> syntheticGoldValues(LocalDate endDate, int days) {
+        List<GoldValue> goldValues = new ArrayList<>(days);
+        for (int i = days - 1; i >= 0; i--) {
+            GoldValue goldValue = new GoldValue();
+            goldValue.setEffectiveDate(endDate.minusDays(i).toString());
+            goldValue.setValue(250 + 20 * Math.sin(i / 7.0) + (i % 13) * 0.37);
+            goldValues.add(goldValue);
+        }
+        return goldValues;
+    }
+
+    /**
+     * Serves every table request from a preloaded table, so benchmarks measure the service code only.
+     */
+    static class StubExchangeRateAPIHandler extends ExchangeRateAPIHandler {
+        private final ExchangeRateTable table;
+
+        StubExchangeRateAPIHandler(ExchangeRateTable table) {
+            super(null);
+            this.table = table;
+        }
+
+        @Override
+        public ExchangeRateTable getExchangeRateTable(String date, ConversionStatistics statistics) {
+            return table;
+        }
+    }
+
+    static class StubGoldValueAPIHandler extends GoldValueAPIHandler {
+        private final List<GoldValue> goldValues;
+
+        StubGoldValueAPIHandler(List<GoldValue> goldValues) {
+            super(null);
+            this.goldValues = goldValues;
+        }
+
+        @Override
+        public List<GoldValue> getGoldValuesForDateRange(String startDate, String endDate) {
+            return goldValues;
+        }
+
+        @Override
+        public GoldValue getGoldValueForSpecificDate(String date) {
+            return goldValues.getLast();
+        }
+    }
+}
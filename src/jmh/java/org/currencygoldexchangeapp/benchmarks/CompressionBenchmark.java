@@ -0,0 +1,168 @@
+package org.currencygoldexchangeapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.currencygoldexchangeapp.datamodels.GoldValue;
+import org.currencygoldexchangeapp.handlers.DeadlinePolicy;
+import org.currencygoldexchangeapp.handlers.NbpHttpClientSettings;
+import org.currencygoldexchangeapp.handlers.NbpHttpExecutor;
+import org.currencygoldexchangeapp.handlers.RetryPolicy;
+import org.currencygoldexchangeapp.metrics.HttpEndpointMetrics;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
+import org.currencygoldexchangeapp.utils.AdaptiveConcurrencyLimiter;
+import org.currencygoldexchangeapp.utils.CircuitBreaker;
+import org.currencygoldexchangeapp.utils.JSONMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares fetching NBP-shaped responses with and without gzip through NbpHttpExecutor, against a local stub
+ * server that counts the body bytes it sends. Responses are decoded with JSONMapper, as the handlers do. An
+ * optional bandwidth limit on the stub models a slow link; unthrottled loopback mostly shows the CPU cost of
+ * compression.
+ *
+ * Arguments: requests per scenario, stub bandwidth in kbit/s (0 for unlimited).
+ */
+public class CompressionBenchmark {
+    private static final int WRITE_CHUNK_SIZE = 4096;
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long bandwidthKbps = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+
+        Map<String, byte[]> bodies = new LinkedHashMap<>();
+        bodies.put("/table", tableC());
+        bodies.put("/gold-range", goldRange(LocalDate.now(), 93));
+
+        AtomicLong bodyBytesSent = new AtomicLong();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 64);
+        bodies.forEach((path, body) -> {
+            byte[] gzipped = gzip(body);
+            server.createContext(path, exchange -> serve(exchange, body, gzipped, bandwidthKbps, bodyBytesSent));
+        });
+        server.start();
+
+        try {
+            HttpClient client = NbpHttpClientSettings.fromSystemProperties().newHttpClient();
+            NbpHttpExecutor executor = new NbpHttpExecutor(client, RetryPolicy.NONE, DeadlinePolicy.DEFAULT, new CircuitBreaker(),
+                    new AdaptiveConcurrencyLimiter(), Clock.systemUTC());
+            HttpEndpointMetrics endpointMetrics = MetricsRegistry.getDefault().endpoint("benchmark.stub");
+            JSONMapper jsonMapper = new JSONMapper();
+            Map<String, Consumer<InputStream>> decoders = Map.of(
+                    "/table", jsonMapper::deserializeJsonToExchangeRateTable,
+                    "/gold-range", jsonMapper::deserializeJsonToGoldValueList);
+
+            System.out.printf("%d requests per scenario, bandwidth %s%n", requests, bandwidthKbps == 0 ? "unlimited" : bandwidthKbps + " kbit/s");
+            System.out.printf("%-12s %-9s %12s %10s %10s %10s%n", "response", "encoding", "bytes/resp", "p50 ms", "p90 ms", "p99 ms");
+            for (String path : bodies.keySet()) {
+                URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+                for (String encoding : List.of("identity", "gzip")) {
+                    HttpRequest request = HttpRequest.newBuilder(uri).header("Accept-Encoding", encoding).GET().build();
+                    // Warm-up: connection setup and JIT, not reported.
+                    run(executor, request, endpointMetrics, decoders.get(path), Math.max(requests / 4, 10));
+
+                    long bytesBefore = bodyBytesSent.get();
+                    long[] latencies = run(executor, request, endpointMetrics, decoders.get(path), requests);
+                    System.out.printf(Locale.ROOT, "%-12s %-9s %12d %10.3f %10.3f %10.3f%n", path.substring(1), encoding,
+                            (bodyBytesSent.get() - bytesBefore) / requests,
+                            percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99));
+                }
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static long[] run(NbpHttpExecutor executor, HttpRequest request, HttpEndpointMetrics endpointMetrics,
+                              Consumer<InputStream> decoder, int requests) throws IOException {
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            long start = System.nanoTime();
+            HttpResponse<InputStream> response = executor.send(request, endpointMetrics, null, null);
+            try (InputStream body = response.body()) {
+                decoder.accept(body);
+            }
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void serve(HttpExchange exchange, byte[] body, byte[] gzipped, long bandwidthKbps, AtomicLong bodyBytesSent) throws IOException {
+        try (exchange) {
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            boolean compress = acceptEncoding != null && acceptEncoding.contains("gzip");
+            byte[] response = compress ? gzipped : body;
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            if (compress) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                for (int offset = 0; offset < response.length; offset += WRITE_CHUNK_SIZE) {
+                    int length = Math.min(WRITE_CHUNK_SIZE, response.length - offset);
+                    responseBody.write(response, offset, length);
+                    responseBody.flush();
+                    if (bandwidthKbps > 0) {
+                        Thread.sleep(length * 8L / bandwidthKbps);
+                    }
+                }
+            }
+            bodyBytesSent.addAndGet(response.length);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Table C as NBP sends it: the test fixture without the pretty-printing. */
+    private static byte[] tableC() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return objectMapper.writeValueAsBytes(objectMapper.readTree(BenchmarkFixtures.loadResource("currencies_response.json")));
+    }
+
+    private static byte[] goldRange(LocalDate endDate, int days) {
+        List<String> entries = new ArrayList<>(days);
+        for (GoldValue goldValue : BenchmarkFixtures.syntheticGoldValues(endDate, days)) {
+            entries.add(String.format(Locale.ROOT, "{\"data\":\"%s\",\"cena\":%.2f}", goldValue.getEffectiveDate(), goldValue.getValue()));
+        }
+        return ("[" + String.join(",", entries) + "]").getBytes();
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static double percentile(long[] sortedLatencies, double quantile) {
+        int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,32 @@
+package org.currencygoldexchangeapp.benchmarks;
+
+import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.services.CurrencyExchangeCalculateService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyExchangeCalculateBenchmark {
+    private CurrencyExchangeCalculateService service;
+
+    @Setup
+    public void setUp() {
+        service = new CurrencyExchangeCalculateService(new BenchmarkFixtures.StubExchangeRateAPIHandler(BenchmarkFixtures.loadExchangeRateTable()));
+    }
+
+    @Benchmark
+    public CurrencyExchange calculateExchangeAmountToPLN() {
+        return service.calculateExchangeAmount("USD", 100.0, "PLN", "2024-01-16");
+    }
+
+    @Benchmark
+    public CurrencyExchange calculateExchangeAmountToOtherCurrency() {
+        return service.calculateExchangeAmount("USD", 100.0, "JPY", "2024-01-16");
+    }
+}
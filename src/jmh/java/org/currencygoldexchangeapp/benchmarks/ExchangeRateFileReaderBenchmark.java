@@ -0,0 +1,60 @@
+package org.currencygoldexchangeapp.benchmarks;
+
+import org.currencygoldexchangeapp.handlers.ExchangeRateFileReaderHandler;
+import org.currencygoldexchangeapp.services.CurrencyExchangeCalculateService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeRateFileReaderBenchmark {
+    private static final String[] CURRENCIES = {"USD", "EUR", "CHF", "GBP", "JPY", "XYZ"};
+
+    @Param({"1000"})
+    public int lines;
+
+    private ExchangeRateFileReaderHandler fileReaderHandler;
+    private Path inputFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        CurrencyExchangeCalculateService service =
+                new CurrencyExchangeCalculateService(new BenchmarkFixtures.StubExchangeRateAPIHandler(BenchmarkFixtures.loadExchangeRateTable()));
+        fileReaderHandler = new ExchangeRateFileReaderHandler(service);
+
+        List<String> content = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            String source = CURRENCIES[i % CURRENCIES.length];
+            String target = i % 3 == 0 ? "PLN" : CURRENCIES[(i + 1) % CURRENCIES.length];
+            content.add(source + " " + (i % 500 + 1) + " " + target + " " + String.format("%02d-01-24", i % 28 + 1));
+        }
+        inputFile = Files.createTempFile("exchange-rates-benchmark", ".csv");
+        Files.write(inputFile, content);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(inputFile);
+    }
+
+    @Benchmark
+    public Map<String, Double> readExchangeRatesSequentially() throws IOException {
+        return fileReaderHandler.readExchangeRates(inputFile.toString());
+    }
+
+    @Benchmark
+    public Map<String, Double> readExchangeRatesInParallel() throws IOException {
+        return fileReaderHandler.readExchangeRatesInParallel(inputFile.toString(), ExchangeRateFileReaderHandler.DEFAULT_MAX_CONCURRENCY);
+    }
+}
@@ -0,0 +1,61 @@
+package org.currencygoldexchangeapp.benchmarks;
+
+import org.currencygoldexchangeapp.services.GoldValueCalculateService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service keeps the gold price series it has fetched, so only the first call of a fork pays for the fetch.
+ * {@code calculateGainOrLossWarm} measures the calls after it; {@code calculateGainOrLossCold} gets a new service
+ * with an empty history for every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GoldValueCalculateBenchmark {
+    private static final LocalDate END_DATE = LocalDate.of(2024, 3, 6);
+
+    @Param({"30", "366"})
+    public int days;
+
+    private BenchmarkFixtures.StubGoldValueAPIHandler goldValueAPIHandler;
+    private GoldValueCalculateService warmService;
+    private String startDate;
+    private String endDate;
+
+    @State(Scope.Thread)
+    public static class ColdService {
+        GoldValueCalculateService service;
+
+        @Setup(Level.Invocation)
+        public void setUp(GoldValueCalculateBenchmark benchmark) {
+            service = new GoldValueCalculateService(benchmark.goldValueAPIHandler);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        goldValueAPIHandler = new BenchmarkFixtures.StubGoldValueAPIHandler(BenchmarkFixtures.syntheticGoldValues(END_DATE, days));
+        warmService = new GoldValueCalculateService(goldValueAPIHandler);
+        startDate = END_DATE.minusDays(days - 1L).toString();
+        endDate = END_DATE.toString();
+        warmService.calculateGainOrLoss(startDate, endDate);
+    }
+
+    @Benchmark
+    public Optional<BigDecimal> calculateGainOrLossWarm() {
+        return warmService.calculateGainOrLoss(startDate, endDate);
+    }
+
+    @Benchmark
+    public Optional<BigDecimal> calculateGainOrLossCold(ColdService cold) {
+        return cold.service.calculateGainOrLoss(startDate, endDate);
+    }
+}
@@ -0,0 +1,49 @@
+package org.currencygoldexchangeapp.benchmarks;
+
+import org.currencygoldexchangeapp.datamodels.ExchangeRateTable;
+import org.currencygoldexchangeapp.datamodels.GoldValue;
+import org.currencygoldexchangeapp.utils.JSONMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONMapperBenchmark {
+    private final JSONMapper jsonMapper = new JSONMapper();
+    private byte[] currenciesJson;
+    private byte[] goldValuesJson;
+
+    @Setup
+    public void setUp() {
+        currenciesJson = BenchmarkFixtures.loadResource("currencies_response.json");
+        goldValuesJson = BenchmarkFixtures.loadResource("last_gold_values_response.json");
+    }
+
+    @Benchmark
+    public ExchangeRateTable decodeExchangeRateTableFromStream() {
+        return jsonMapper.deserializeJsonToExchangeRateTable(new ByteArrayInputStream(currenciesJson));
+    }
+
+    @Benchmark
+    public ExchangeRateTable decodeExchangeRateTableFromString() {
+        return jsonMapper.deserializeJsonToExchangeRateTable(new String(currenciesJson, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public List<GoldValue> decodeGoldValuesFromStream() {
+        return jsonMapper.deserializeJsonToGoldValueList(new ByteArrayInputStream(goldValuesJson));
+    }
+
+    @Benchmark
+    public List<GoldValue> decodeGoldValuesFromString() {
+        return jsonMapper.deserializeJsonToGoldValueList(new String(goldValuesJson, StandardCharsets.UTF_8));
+    }
+}
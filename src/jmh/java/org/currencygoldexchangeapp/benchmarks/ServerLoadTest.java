@@ -0,0 +1,144 @@
+package org.currencygoldexchangeapp.benchmarks;
+
+import org.currencygoldexchangeapp.datamodels.GoldValue;
+import org.currencygoldexchangeapp.server.ApiServer;
+import org.currencygoldexchangeapp.services.CurrencyExchangeCalculateService;
+import org.currencygoldexchangeapp.services.GoldValueCalculateService;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load test of the HTTP API: each client sends its next request as soon as the previous one is
+ * answered, cycling through the three endpoints. The NBP API is replaced by in-memory stubs, so the numbers
+ * describe the server, routing and JSON handling rather than the network.
+ *
+ * Arguments: number of concurrent clients, warm-up seconds, measured seconds.
+ */
+public class ServerLoadTest {
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        Duration warmup = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 5);
+        Duration measurement = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 20);
+
+        LocalDate today = LocalDate.now();
+        List<GoldValue> goldValues = BenchmarkFixtures.syntheticGoldValues(today, 400);
+        BenchmarkFixtures.StubGoldValueAPIHandler goldValueAPIHandler = new BenchmarkFixtures.StubGoldValueAPIHandler(goldValues);
+        CurrencyExchangeCalculateService currencyExchangeCalculateService =
+                new CurrencyExchangeCalculateService(new BenchmarkFixtures.StubExchangeRateAPIHandler(BenchmarkFixtures.loadExchangeRateTable()));
+
+        try (ApiServer server = new ApiServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), currencyExchangeCalculateService,
+                goldValueAPIHandler, new GoldValueCalculateService(goldValueAPIHandler))) {
+            server.start();
+            String baseUrl = "http://127.0.0.1:" + server.getPort();
+            List<URI> uris = List.of(
+                    URI.create(baseUrl + "/api/exchange?source=USD&amount=100&target=EUR&date=2024-01-16"),
+                    URI.create(baseUrl + "/api/gold?date=" + today),
+                    URI.create(baseUrl + "/api/gold/gain-or-loss?start=" + today.minusMonths(3) + "&end=" + today));
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            System.out.printf("Warming up for %ds with %d clients%n", warmup.toSeconds(), clients);
+            runClients(client, uris, clients, warmup);
+
+            System.out.printf("Measuring for %ds with %d clients%n", measurement.toSeconds(), clients);
+            long start = System.nanoTime();
+            List<ClientResult> results = runClients(client, uris, clients, measurement);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            report(results, elapsedSeconds);
+        }
+    }
+
+    private static List<ClientResult> runClients(HttpClient client, List<URI> uris, int clients, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<ClientResult>> futures = new ArrayList<>(clients);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                int clientIndex = i;
+                futures.add(executor.submit(() -> runClient(client, uris, clientIndex, deadline)));
+            }
+
+            List<ClientResult> results = new ArrayList<>(clients);
+            for (Future<ClientResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+    }
+
+    private static ClientResult runClient(HttpClient client, List<URI> uris, int clientIndex, long deadline) {
+        ClientResult result = new ClientResult();
+        int requestIndex = clientIndex;
+
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = HttpRequest.newBuilder(uris.get(requestIndex++ % uris.size())).build();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                result.record(System.nanoTime() - start, response.statusCode() == 200);
+            } catch (Exception e) {
+                result.record(System.nanoTime() - start, false);
+            }
+        }
+        return result;
+    }
+
+    private static void report(List<ClientResult> results, double elapsedSeconds) {
+        int total = results.stream().mapToInt(result -> result.count).sum();
+        long errors = results.stream().mapToLong(result -> result.errors).sum();
+
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (ClientResult result : results) {
+            System.arraycopy(result.latenciesNanos, 0, latencies, offset, result.count);
+            offset += result.count;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("requests=%d errors=%d throughput=%.0f req/s%n", total, errors, total / elapsedSeconds);
+        System.out.printf("latency p50=%.3fms p90=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sortedLatencies, double quantile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1e6;
+    }
+
+    private static final class ClientResult {
+        private long[] latenciesNanos = new long[4096];
+        private int count;
+        private long errors;
+
+        void record(long latencyNanos, boolean success) {
+            if (count == latenciesNanos.length) {
+                latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+            }
+            latenciesNanos[count++] = latencyNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+    }
+}
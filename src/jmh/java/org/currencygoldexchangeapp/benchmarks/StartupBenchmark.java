@@ -0,0 +1,122 @@
+package org.currencygoldexchangeapp.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.currencygoldexchangeapp.constants.APIConstants;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Launches the application repeatedly and measures the time from starting the JVM process to the first line
+ * it prints, with and without the AppCDS archive. The application fetches table C from a local stub server
+ * instead of NBP, so the first result includes the HTTP client and JSON decoding, and runs are comparable
+ * between machines.
+ *
+ * Arguments: application classpath, archive file, number of measured runs per variant.
+ */
+public class StartupBenchmark {
+    private static final String MAIN_CLASS = "org.currencygoldexchangeapp.Main";
+    // A Tuesday, the effective date of the table served by the stub.
+    private static final String INPUT_LINE = "USD 100 EUR 16-01-24\n";
+    private static final int WARMUP_RUNS = 2;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.err.println("Usage: StartupBenchmark <classpath> <archive.jsa> <runs>");
+            System.exit(2);
+        }
+
+        String classpath = args[0];
+        Path archive = Path.of(args[1]);
+        int runs = Integer.parseInt(args[2]);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        byte[] table = BenchmarkFixtures.loadResource("currencies_response.json");
+        AtomicLong tableRequests = new AtomicLong();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 16);
+        server.createContext("/api/exchangerates/tables/C/", exchange -> serve(exchange, table, tableRequests));
+        server.start();
+
+        try {
+            String apiUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/";
+            List<String> baseCommand = List.of(java, "-Xshare:auto", "-D" + APIConstants.API_URL_PROPERTY + "=" + apiUrl,
+                    "-cp", classpath, MAIN_CLASS, "stream");
+            report("default CDS", measure(baseCommand, runs));
+
+            if (Files.exists(archive)) {
+                List<String> archiveCommand = new ArrayList<>(baseCommand);
+                archiveCommand.add(1, "-XX:SharedArchiveFile=" + archive);
+                report("AppCDS", measure(archiveCommand, runs));
+            } else {
+                System.out.println("AppCDS archive not found: " + archive);
+            }
+        } finally {
+            server.stop(0);
+        }
+        System.out.println("Table requests served by the stub: " + tableRequests.get());
+    }
+
+    private static void serve(HttpExchange exchange, byte[] table, AtomicLong tableRequests) throws IOException {
+        try (exchange) {
+            tableRequests.incrementAndGet();
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, table.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(table);
+            }
+        }
+    }
+
+    private static long[] measure(List<String> command, int runs) throws IOException, InterruptedException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            launchAndWaitForFirstLine(command);
+        }
+
+        long[] timesMillis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            timesMillis[i] = launchAndWaitForFirstLine(command);
+        }
+        Arrays.sort(timesMillis);
+        return timesMillis;
+    }
+
+    private static long launchAndWaitForFirstLine(List<String> command) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        try (OutputStream stdin = process.getOutputStream()) {
+            stdin.write(INPUT_LINE.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String firstLine;
+        try (BufferedReader stdout = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            firstLine = stdout.readLine();
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            if (firstLine == null) {
+                throw new IllegalStateException("The application exited without output");
+            }
+            stdout.transferTo(Writer.nullWriter());
+            process.waitFor();
+            return elapsed;
+        }
+    }
+
+    private static void report(String variant, long[] timesMillis) {
+        System.out.printf("%-12s runs=%d min=%dms median=%dms p90=%dms max=%dms%n", variant, timesMillis.length,
+                timesMillis[0], timesMillis[timesMillis.length / 2], timesMillis[(int) Math.ceil(timesMillis.length * 0.9) - 1],
+                timesMillis[timesMillis.length - 1]);
+    }
+}
@@ -1,10 +1,16 @@
 package org.currencygoldexchangeapp;
 
+import org.currencygoldexchangeapp.services.CommandLineService;
 import org.currencygoldexchangeapp.services.UserMenuService;
 
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0) {
+            int exitCode = new CommandLineService().run(args, System.in, System.out, System.err);
+            System.exit(exitCode);
+        }
+
         UserMenuService userMenuService = new UserMenuService();
         userMenuService.runApplication();
     }
-}
\ No newline at end of file
+}
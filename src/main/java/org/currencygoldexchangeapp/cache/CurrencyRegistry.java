@@ -0,0 +1,246 @@
+package org.currencygoldexchangeapp.cache;
+
+import org.currencygoldexchangeapp.datamodels.CurrencyRate;
+import org.currencygoldexchangeapp.datamodels.ExchangeRateTable;
+import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+import org.currencygoldexchangeapp.handlers.ExchangeRateAPIHandler;
+import org.currencygoldexchangeapp.utils.BusinessDayCalendar;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Currencies quoted in NBP table C, each with the first and last date it was published. Lookups read an
+ * immutable snapshot; refreshing from a table replaces the snapshot, so readers never block.
+ *
+ * The registry starts from a known list so that input can be validated offline and before the first refresh.
+ * {@link #refresh(ExchangeRateAPIHandler)} replaces it with intervals read from the tables themselves.
+ */
+public class CurrencyRegistry {
+    private static final Logger LOGGER = Logger.getLogger(CurrencyRegistry.class.getName());
+    private static final int OPEN_END = Integer.MAX_VALUE;
+
+    // Table C history from the first date supported by the application. EEK left the table when Estonia
+    // adopted the euro on 2011-01-01.
+    private static final LocalDate HISTORY_START = LocalDate.of(2003, 1, 2);
+    // Longer than any run of days without a table (Christmas to New Year).
+    private static final int MAX_DAYS_WITHOUT_TABLE = 10;
+    private static final String[] ACTIVE_CURRENCIES = {"USD", "AUD", "CAD", "EUR", "HUF", "CHF", "GBP", "JPY", "CZK", "DKK", "NOK", "SEK", "XDR"};
+
+    private final Clock clock;
+    private volatile Map<String, Availability> availabilityByCode;
+
+    public CurrencyRegistry() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public CurrencyRegistry(Clock clock) {
+        this.clock = clock;
+        Map<String, Availability> history = new HashMap<>();
+        int historyStart = (int) HISTORY_START.toEpochDay();
+        for (String code : ACTIVE_CURRENCIES) {
+            history.put(code, new Availability(historyStart, OPEN_END));
+        }
+        history.put("EEK", new Availability(historyStart, (int) LocalDate.of(2010, 12, 31).toEpochDay()));
+        this.availabilityByCode = Collections.unmodifiableMap(history);
+    }
+
+    public static CurrencyRegistry getDefault() {
+        return DefaultRegistryHolder.INSTANCE;
+    }
+
+    public boolean isAvailable(String code, LocalDate date) {
+        if (code == null || date == null) {
+            return false;
+        }
+        // Codes are stored upper-case; toUpperCase returns the same instance when nothing changes.
+        Availability availability = availabilityByCode.get(code.toUpperCase());
+        return availability != null && availability.contains((int) date.toEpochDay());
+    }
+
+    public boolean isAvailable(String code, String date) {
+        try {
+            return isAvailable(code, LocalDate.parse(date));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    public Set<String> getCurrencyCodes(LocalDate date) {
+        Set<String> codes = new TreeSet<>();
+        int epochDay = (int) date.toEpochDay();
+        availabilityByCode.forEach((code, availability) -> {
+            if (availability.contains(epochDay)) {
+                codes.add(code);
+            }
+        });
+        return codes;
+    }
+
+    /**
+     * Widens the intervals of every currency quoted in the table to its effective date. Currencies still
+     * considered active but missing from a newer table are closed on the day before it.
+     */
+    public synchronized void refresh(ExchangeRateTable table) {
+        int tableDay = (int) LocalDate.parse(table.getEffectiveDate()).toEpochDay();
+        Map<String, Availability> updated = new HashMap<>(availabilityByCode);
+        Set<String> quotedCodes = new HashSet<>();
+
+        for (CurrencyRate rate : table.getRates()) {
+            String code = rate.getCode().toUpperCase().intern();
+            quotedCodes.add(code);
+            Availability availability = updated.get(code);
+            updated.put(code, availability == null ? new Availability(tableDay, OPEN_END) : availability.including(tableDay));
+        }
+
+        updated.replaceAll((code, availability) -> !quotedCodes.contains(code) && availability.lastEpochDay() == OPEN_END && availability.firstEpochDay() < tableDay
+                ? new Availability(availability.firstEpochDay(), tableDay - 1)
+                : availability);
+
+        availabilityByCode = Collections.unmodifiableMap(updated);
+    }
+
+    /**
+     * Rebuilds the registry from table C history: the first table since {@code HISTORY_START} and the latest
+     * one. A currency quoted in only one of them is dated by bisecting the tables in between, which assumes
+     * each currency was quoted in one unbroken run of tables. Returns false, keeping the current intervals,
+     * when the tables could not be fetched.
+     */
+    public boolean refresh(ExchangeRateAPIHandler exchangeRateAPIHandler) {
+        try {
+            ExchangeRateTable latestTable = fetchLatestTable(exchangeRateAPIHandler);
+            ExchangeRateTable firstTable = fetchTableOnOrAfter(exchangeRateAPIHandler, HISTORY_START);
+            Map<String, Availability> history = buildHistory(exchangeRateAPIHandler, firstTable, latestTable);
+            synchronized (this) {
+                availabilityByCode = Collections.unmodifiableMap(history);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to refresh the currency registry.", e);
+            return false;
+        }
+    }
+
+    private Map<String, Availability> buildHistory(ExchangeRateAPIHandler exchangeRateAPIHandler, ExchangeRateTable firstTable, ExchangeRateTable latestTable) {
+        int firstDay = epochDayOf(firstTable);
+        int latestDay = epochDayOf(latestTable);
+        Map<String, Availability> history = new HashMap<>();
+
+        for (CurrencyRate rate : latestTable.getRates()) {
+            String code = rate.getCode().toUpperCase().intern();
+            int from = firstTable.containsCurrency(code) ? firstDay : findFirstQuotedDay(exchangeRateAPIHandler, code, firstDay, latestDay);
+            history.put(code, new Availability(from, OPEN_END));
+        }
+        for (CurrencyRate rate : firstTable.getRates()) {
+            String code = rate.getCode().toUpperCase().intern();
+            if (!history.containsKey(code)) {
+                history.put(code, new Availability(firstDay, findLastQuotedDay(exchangeRateAPIHandler, code, firstDay, latestDay)));
+            }
+        }
+
+        return history;
+    }
+
+    /**
+     * Finds the first table quoting the code, given a table day without it and a later one with it.
+     */
+    private int findFirstQuotedDay(ExchangeRateAPIHandler exchangeRateAPIHandler, String code, int notQuotedDay, int quotedDay) {
+        while (quotedDay - notQuotedDay > 1) {
+            int middleDay = (notQuotedDay + quotedDay) >>> 1;
+            ExchangeRateTable table = fetchTableOnOrBefore(exchangeRateAPIHandler, LocalDate.ofEpochDay(middleDay));
+            int tableDay = epochDayOf(table);
+            // No table was published between tableDay and middleDay, so they all answer the same.
+            if (tableDay > notQuotedDay && table.containsCurrency(code)) {
+                quotedDay = tableDay;
+            } else {
+                notQuotedDay = middleDay;
+            }
+        }
+        return quotedDay;
+    }
+
+    /**
+     * Finds the last table quoting the code, given a table day with it and a later one without it.
+     */
+    private int findLastQuotedDay(ExchangeRateAPIHandler exchangeRateAPIHandler, String code, int quotedDay, int notQuotedDay) {
+        int lastQuotedTableDay = quotedDay;
+        while (notQuotedDay - quotedDay > 1) {
+            int middleDay = (quotedDay + notQuotedDay) >>> 1;
+            ExchangeRateTable table = fetchTableOnOrBefore(exchangeRateAPIHandler, LocalDate.ofEpochDay(middleDay));
+            int tableDay = epochDayOf(table);
+            if (tableDay > quotedDay && !table.containsCurrency(code)) {
+                notQuotedDay = tableDay;
+            } else {
+                if (tableDay > quotedDay) {
+                    lastQuotedTableDay = tableDay;
+                }
+                quotedDay = middleDay;
+            }
+        }
+        return lastQuotedTableDay;
+    }
+
+    private ExchangeRateTable fetchLatestTable(ExchangeRateAPIHandler exchangeRateAPIHandler) {
+        BusinessDayCalendar calendar = BusinessDayCalendar.getDefault();
+        LocalDate today = LocalDate.now(clock);
+        LocalDate latestPublicationDay = calendar.isBusinessDay(today) ? today : calendar.previousBusinessDay(today);
+
+        try {
+            return exchangeRateAPIHandler.getExchangeRateTable(latestPublicationDay.toString());
+        } catch (DataNotFoundException e) {
+            // Today's table is published around noon; until then the previous one is the latest.
+            return exchangeRateAPIHandler.getExchangeRateTable(calendar.previousBusinessDay(latestPublicationDay).toString());
+        }
+    }
+
+    private static ExchangeRateTable fetchTableOnOrAfter(ExchangeRateAPIHandler exchangeRateAPIHandler, LocalDate date) {
+        for (int days = 0; days < MAX_DAYS_WITHOUT_TABLE; days++) {
+            try {
+                return exchangeRateAPIHandler.getExchangeRateTable(date.plusDays(days).toString());
+            } catch (DataNotFoundException e) {
+                // No table on that day; try the next one.
+            }
+        }
+        throw new DataNotFoundException();
+    }
+
+    private static ExchangeRateTable fetchTableOnOrBefore(ExchangeRateAPIHandler exchangeRateAPIHandler, LocalDate date) {
+        for (int days = 0; days < MAX_DAYS_WITHOUT_TABLE; days++) {
+            try {
+                return exchangeRateAPIHandler.getExchangeRateTable(date.minusDays(days).toString());
+            } catch (DataNotFoundException e) {
+                // No table on that day; try the one before.
+            }
+        }
+        throw new DataNotFoundException();
+    }
+
+    private static int epochDayOf(ExchangeRateTable table) {
+        return (int) LocalDate.parse(table.getEffectiveDate()).toEpochDay();
+    }
+
+    private record Availability(int firstEpochDay, int lastEpochDay) {
+        boolean contains(int epochDay) {
+            return epochDay >= firstEpochDay && epochDay <= lastEpochDay;
+        }
+
+        Availability including(int epochDay) {
+            int first = Math.min(firstEpochDay, epochDay);
+            int last = lastEpochDay == OPEN_END ? OPEN_END : Math.max(lastEpochDay, epochDay);
+            return first == firstEpochDay && last == lastEpochDay ? this : new Availability(first, last);
+        }
+    }
+
+    private static class DefaultRegistryHolder {
+        private static final CurrencyRegistry INSTANCE = new CurrencyRegistry();
+    }
+}
@@ -0,0 +1,197 @@
+package org.currencygoldexchangeapp.cache;
+
+import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.datamodels.CurrencyRate;
+import org.currencygoldexchangeapp.datamodels.ExchangeRateTable;
+import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of NBP table C lookups, bounded by entry count and estimated bytes. Whole tables are what the
+ * application looks up; single-rate entries only back the public {@code getExchangeRateSingleCurrency} and are
+ * counted at a fixed size.
+ */
+public class ExchangeRateCache {
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+    public static final Duration DEFAULT_TODAY_TTL = Duration.ofMinutes(5);
+
+    // Rough per-entry footprint: map node, key, cached value and their object headers.
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+    private static final int TABLE_RATE_BYTES = 120;
+    private static final int RATE_ENTRY_BYTES = ENTRY_OVERHEAD_BYTES + 64;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Duration todayTtl;
+    private final Clock clock;
+    private final LinkedHashMap<CacheKey, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long currentBytes;
+
+    public ExchangeRateCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES, DEFAULT_TODAY_TTL, Clock.systemDefaultZone());
+    }
+
+    public ExchangeRateCache(int maxEntries, long maxBytes, Duration todayTtl, Clock clock) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache limits must be positive numbers");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.todayTtl = todayTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a fresh copy of the cached rate, or an empty result on a miss.
+     * Throws {@link DataNotFoundException} when NBP is already known to have no table for the key.
+     */
+    public synchronized Optional<CurrencyExchange> get(String code, String date) {
+        return lookup(CacheKey.forRate(code, date)).map(value -> ((CachedRate) value).toCurrencyExchange());
+    }
+
+    public synchronized void put(String code, String date, CurrencyExchange currencyExchange) {
+        CurrencyRate firstRate = currencyExchange.getRates() == null || currencyExchange.getRates().isEmpty()
+                ? null
+                : currencyExchange.getRates().getFirst();
+        String effectiveDate = firstRate != null ? firstRate.getEffectiveDate() : date;
+        CachedRate cachedRate = new CachedRate(currencyExchange.getCode(), effectiveDate, currencyExchange.getBid(), currencyExchange.getAsk());
+        CacheKey key = CacheKey.forRate(code, date);
+
+        store(key, new CacheEntry(cachedRate, Long.MAX_VALUE, RATE_ENTRY_BYTES));
+    }
+
+    public synchronized void putNotFound(String code, String date) {
+        storeNotFound(CacheKey.forRate(code, date));
+    }
+
+    /**
+     * Returns the cached table snapshot for the given date, or an empty result on a miss.
+     * Throws {@link DataNotFoundException} when NBP is already known to have no table for that date.
+     */
+    public synchronized Optional<ExchangeRateTable> getTable(String date) {
+        return lookup(CacheKey.forTable(date)).map(ExchangeRateTable.class::cast);
+    }
+
+    public synchronized void putTable(String date, ExchangeRateTable table) {
+        long estimatedBytes = ENTRY_OVERHEAD_BYTES + 2L * date.length() + (long) TABLE_RATE_BYTES * table.getRates().size();
+
+        store(CacheKey.forTable(date), new CacheEntry(table, Long.MAX_VALUE, estimatedBytes));
+    }
+
+    public synchronized void putTableNotFound(String date) {
+        storeNotFound(CacheKey.forTable(date));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return currentBytes;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    private Optional<Object> lookup(CacheKey key) {
+        CacheEntry entry = entries.get(key);
+
+        if (entry != null && entry.expiresAtMillis() < clock.millis()) {
+            entries.remove(key);
+            currentBytes -= entry.estimatedBytes();
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        hits.incrementAndGet();
+        if (entry.value() == null) {
+            throw new DataNotFoundException();
+        }
+        return Optional.of(entry.value());
+    }
+
+    private void storeNotFound(CacheKey key) {
+        // A table may still be published for today or a later date, so only a past 404 is final. ISO dates sort as strings.
+        long expiresAtMillis = key.date().compareTo(LocalDate.now(clock).toString()) >= 0
+                ? clock.millis() + todayTtl.toMillis()
+                : Long.MAX_VALUE;
+
+        store(key, new CacheEntry(null, expiresAtMillis, ENTRY_OVERHEAD_BYTES));
+    }
+
+    private void store(CacheKey key, CacheEntry entry) {
+        CacheEntry previous = entries.put(key, entry);
+        if (previous != null) {
+            currentBytes -= previous.estimatedBytes();
+        }
+        currentBytes += entry.estimatedBytes();
+
+        Iterator<CacheEntry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || currentBytes > maxBytes) && eldest.hasNext()) {
+            currentBytes -= eldest.next().estimatedBytes();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    // Table snapshots share the LRU order and budget with single rates; a null code marks a table key.
+    private record CacheKey(String code, String date) {
+        static CacheKey forRate(String code, String date) {
+            return new CacheKey(code.toUpperCase(), date);
+        }
+
+        static CacheKey forTable(String date) {
+            return new CacheKey(null, date);
+        }
+    }
+
+    private record CacheEntry(Object value, long expiresAtMillis, long estimatedBytes) {
+    }
+
+    private record CachedRate(String code, String effectiveDate, double bid, double ask) {
+        CurrencyExchange toCurrencyExchange() {
+            CurrencyRate rate = new CurrencyRate();
+            rate.setCode(code);
+            rate.setEffectiveDate(effectiveDate);
+            rate.setBid(bid);
+            rate.setAsk(ask);
+
+            CurrencyExchange currencyExchange = new CurrencyExchange();
+            currencyExchange.setCode(code);
+            currencyExchange.setRates(Collections.singletonList(rate));
+            currencyExchange.setBid(bid);
+            currencyExchange.setAsk(ask);
+            return currencyExchange;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.currencygoldexchangeapp.cache;
+
+import org.currencygoldexchangeapp.datamodels.GoldValue;
+import org.currencygoldexchangeapp.datamodels.GoldValueSeries;
+import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+import org.currencygoldexchangeapp.handlers.GoldValueAPIHandler;
+import org.currencygoldexchangeapp.utils.DateRange;
+import org.currencygoldexchangeapp.utils.SingleFlight;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gold prices downloaded so far, together with the contiguous date range they cover. Requests for a window
+ * fetch only the days outside that range; today's date is covered only once its price has been published.
+ * Fetches run without holding the lock, so requests already covered are answered while another one waits for
+ * NBP; the fetched prices are then merged into a new snapshot.
+ */
+public class GoldValueHistory {
+    private static final Snapshot EMPTY = new Snapshot(GoldValueSeries.fromGoldValues(Collections.emptyList()), null, null);
+
+    private final GoldValueAPIHandler goldValueAPIHandler;
+    private final Clock clock;
+    private final SingleFlight<DateRange, List<GoldValue>> rangeFetches = new SingleFlight<>();
+    private final AtomicLong fetchCount = new AtomicLong();
+    private volatile Snapshot snapshot = EMPTY;
+
+    public GoldValueHistory(GoldValueAPIHandler goldValueAPIHandler) {
+        this(goldValueAPIHandler, Clock.systemDefaultZone());
+    }
+
+    public GoldValueHistory(GoldValueAPIHandler goldValueAPIHandler, Clock clock) {
+        this.goldValueAPIHandler = goldValueAPIHandler;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a series that contains every published price between the given dates, fetching the missing
+     * leading and trailing days first.
+     */
+    public GoldValueSeries getSeries(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        Snapshot current = snapshot;
+        if (current.coveredStart() == null) {
+            fetchAndMerge(startDate, endDate);
+        } else {
+            if (startDate.isBefore(current.coveredStart())) {
+                fetchAndMerge(startDate, current.coveredStart().minusDays(1));
+            }
+            if (endDate.isAfter(current.coveredEnd())) {
+                fetchAndMerge(current.coveredEnd().plusDays(1), endDate);
+            }
+        }
+
+        return snapshot.series();
+    }
+
+    public LocalDate getCoveredStart() {
+        return snapshot.coveredStart();
+    }
+
+    public LocalDate getCoveredEnd() {
+        return snapshot.coveredEnd();
+    }
+
+    public long getFetchCount() {
+        return fetchCount.get();
+    }
+
+    public synchronized void clear() {
+        snapshot = EMPTY;
+    }
+
+    private void fetchAndMerge(LocalDate startDate, LocalDate endDate) {
+        LocalDate today = LocalDate.now(clock);
+        if (startDate.isAfter(today)) {
+            return;
+        }
+
+        List<GoldValue> fetchedGoldValues = rangeFetches.execute(new DateRange(startDate, endDate), () -> {
+            fetchCount.incrementAndGet();
+            try {
+                return goldValueAPIHandler.getGoldValuesForDateRange(startDate.toString(), endDate.toString());
+            } catch (DataNotFoundException e) {
+                return Collections.emptyList();
+            }
+        });
+
+        merge(startDate, endDate, fetchedGoldValues, today);
+    }
+
+    private synchronized void merge(LocalDate startDate, LocalDate endDate, List<GoldValue> fetchedGoldValues, LocalDate today) {
+        Snapshot current = snapshot;
+        GoldValueSeries series = current.series().withGoldValues(fetchedGoldValues);
+
+        LocalDate fetchedEnd = endDate.isBefore(today) ? endDate : today;
+        if (!fetchedEnd.isBefore(today) && series.indexOf(today) < 0) {
+            // Today's price may still be published later, so the day is left open for the next request.
+            fetchedEnd = today.minusDays(1);
+        }
+
+        LocalDate coveredStart = current.coveredStart();
+        LocalDate coveredEnd = current.coveredEnd();
+        if (coveredStart == null) {
+            if (!fetchedEnd.isBefore(startDate)) {
+                coveredStart = startDate;
+                coveredEnd = fetchedEnd;
+            }
+        } else if (!startDate.isAfter(coveredEnd.plusDays(1)) && !fetchedEnd.isBefore(coveredStart.minusDays(1))) {
+            // A range that does not touch the covered one (the history was cleared meanwhile) adds prices only.
+            if (startDate.isBefore(coveredStart)) {
+                coveredStart = startDate;
+            }
+            if (fetchedEnd.isAfter(coveredEnd)) {
+                coveredEnd = fetchedEnd;
+            }
+        }
+
+        snapshot = new Snapshot(series, coveredStart, coveredEnd);
+    }
+
+    private record Snapshot(GoldValueSeries series, LocalDate coveredStart, LocalDate coveredEnd) {
+    }
+}
@@ -1,8 +1,16 @@
 package org.currencygoldexchangeapp.constants;
 
 import java.net.URI;
+import java.time.LocalDate;
 
 public class APIConstants {
-    public static final URI EXCHANGE_RATE_API_URL = URI.create("https://api.nbp.pl/api/exchangerates/");
-    public static final URI GOLD_VALUE_API_URL = URI.create("https://api.nbp.pl/api/cenyzlota/");
+    /** Base URL of the NBP API, ending with a slash. Overridden to point the application at a stub server. */
+    public static final String API_URL_PROPERTY = "currencygoldexchangeapp.nbp.url";
+    public static final URI API_URL = URI.create(System.getProperty(API_URL_PROPERTY, "https://api.nbp.pl/api/"));
+    public static final URI EXCHANGE_RATE_API_URL = API_URL.resolve("exchangerates/");
+    public static final URI GOLD_VALUE_API_URL = API_URL.resolve("cenyzlota/");
+    public static final int MAX_EXCHANGE_RATE_RANGE_DAYS = 93;
+    public static final int MAX_GOLD_VALUE_RANGE_DAYS = 93;
+    public static final int MAX_PARALLEL_RANGE_REQUESTS = 4;
+    public static final LocalDate GOLD_VALUE_HISTORY_START = LocalDate.of(2013, 1, 2);
 }
@@ -0,0 +1,18 @@
+package org.currencygoldexchangeapp.datamodels;
+
+/**
+ * Outcome of converting one input line: either the result under the line's unique key, or the reason it failed.
+ */
+public record ConversionResult(String uniqueKey, double exchangeRate, String errorReason) {
+    public static ConversionResult processed(String uniqueKey, double exchangeRate) {
+        return new ConversionResult(uniqueKey, exchangeRate, null);
+    }
+
+    public static ConversionResult failed(String errorReason) {
+        return new ConversionResult(null, 0.0, errorReason);
+    }
+
+    public boolean isProcessed() {
+        return errorReason == null;
+    }
+}
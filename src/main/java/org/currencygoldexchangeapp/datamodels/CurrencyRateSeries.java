@@ -0,0 +1,78 @@
+package org.currencygoldexchangeapp.datamodels;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public class CurrencyRateSeries {
+    private final String code;
+    private final int[] epochDays;
+    private final double[] bids;
+    private final double[] asks;
+
+    private CurrencyRateSeries(String code, int[] epochDays, double[] bids, double[] asks) {
+        this.code = code;
+        this.epochDays = epochDays;
+        this.bids = bids;
+        this.asks = asks;
+    }
+
+    public static CurrencyRateSeries fromRates(String code, List<CurrencyRate> rates) {
+        List<CurrencyRate> sortedRates = rates.stream()
+                .sorted(Comparator.comparing(CurrencyRate::getEffectiveDate))
+                .toList();
+
+        int[] epochDays = new int[sortedRates.size()];
+        double[] bids = new double[sortedRates.size()];
+        double[] asks = new double[sortedRates.size()];
+        int size = 0;
+
+        for (CurrencyRate rate : sortedRates) {
+            int epochDay = (int) LocalDate.parse(rate.getEffectiveDate()).toEpochDay();
+            if (size > 0 && epochDays[size - 1] == epochDay) {
+                size--;
+            }
+            epochDays[size] = epochDay;
+            bids[size] = rate.getBid();
+            asks[size] = rate.getAsk();
+            size++;
+        }
+
+        return new CurrencyRateSeries(code, Arrays.copyOf(epochDays, size), Arrays.copyOf(bids, size), Arrays.copyOf(asks, size));
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    public LocalDate getDate(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public double getBid(int index) {
+        return bids[index];
+    }
+
+    public double getAsk(int index) {
+        return asks[index];
+    }
+
+    public int indexOf(LocalDate date) {
+        int index = Arrays.binarySearch(epochDays, (int) date.toEpochDay());
+        return index >= 0 ? index : -1;
+    }
+
+    @Override
+    public String toString() {
+        return code + " rates=" + size() + (isEmpty() ? "" : ", from " + getDate(0) + " to " + getDate(size() - 1));
+    }
+}
@@ -0,0 +1,84 @@
+package org.currencygoldexchangeapp.datamodels;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.currencygoldexchangeapp.exceptions.CurrencyNotFoundException;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ExchangeRateTable {
+
+    @JsonProperty("no")
+    private String number;
+
+    @JsonProperty("effectiveDate")
+    private String effectiveDate;
+
+    @JsonProperty("rates")
+    private List<CurrencyRate> rates = Collections.emptyList();
+
+    private Map<String, CurrencyRate> ratesByCode = Collections.emptyMap();
+
+    public String getNumber() {
+        return number;
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+    }
+
+    public String getEffectiveDate() {
+        return effectiveDate;
+    }
+
+    public void setEffectiveDate(String effectiveDate) {
+        this.effectiveDate = effectiveDate;
+    }
+
+    public List<CurrencyRate> getRates() {
+        return rates;
+    }
+
+    public void setRates(List<CurrencyRate> rates) {
+        Map<String, CurrencyRate> index = new HashMap<>();
+        for (CurrencyRate rate : rates) {
+            index.put(rate.getCode().toUpperCase(), rate);
+        }
+        this.rates = Collections.unmodifiableList(rates);
+        this.ratesByCode = index;
+    }
+
+    public boolean containsCurrency(String code) {
+        return ratesByCode.containsKey(code.toUpperCase());
+    }
+
+    public CurrencyExchange getCurrencyExchange(String code) {
+        CurrencyRate rate = ratesByCode.get(code.toUpperCase());
+        if (rate == null) {
+            throw new CurrencyNotFoundException(code);
+        }
+
+        CurrencyRate rateCopy = new CurrencyRate();
+        rateCopy.setCode(rate.getCode());
+        rateCopy.setCurrency(rate.getCurrency());
+        rateCopy.setEffectiveDate(effectiveDate);
+        rateCopy.setBid(rate.getBid());
+        rateCopy.setAsk(rate.getAsk());
+
+        CurrencyExchange currencyExchange = new CurrencyExchange();
+        currencyExchange.setCode(rate.getCode());
+        currencyExchange.setRates(Collections.singletonList(rateCopy));
+        currencyExchange.setBid(rate.getBid());
+        currencyExchange.setAsk(rate.getAsk());
+        return currencyExchange;
+    }
+
+    @Override
+    public String toString() {
+        return "table=" + number + ", effectiveDate=" + effectiveDate + ", rates=" + rates.size();
+    }
+}
@@ -0,0 +1,46 @@
+package org.currencygoldexchangeapp.datamodels;
+
+import java.util.Locale;
+
+/**
+ * Cost of one file conversion run. Stage times are summed over all lines, so with concurrent processing they
+ * can add up to more than the wall-clock time. Fetch time includes waiting for requests shared with other
+ * lines; output time is filled in by whoever prints or saves the results. A table request avoided is a rate lookup
+ * answered from the cache or from a request already in flight for another line. Peak retained results is the most
+ * converted lines held at once before being added to the results in file order.
+ */
+public record FileRunReport(int lines, int processedLines, int failedLines, long wallNanos,
+                            long parseNanos, long validateNanos, long fetchNanos, long computeNanos, long outputNanos,
+                            long tableFetches, long tableFetchesAvoided,
+                            long p50LineNanos, long p95LineNanos, long p99LineNanos, int peakRetainedResults) {
+
+    public double linesPerSecond() {
+        return wallNanos == 0 ? 0 : lines / (wallNanos / 1e9);
+    }
+
+    public FileRunReport withOutputNanos(long outputNanos) {
+        return new FileRunReport(lines, processedLines, failedLines, wallNanos, parseNanos, validateNanos, fetchNanos, computeNanos,
+                outputNanos, tableFetches, tableFetchesAvoided, p50LineNanos, p95LineNanos, p99LineNanos, peakRetainedResults);
+    }
+
+    public String format() {
+        long stageTotal = Math.max(1, parseNanos + validateNanos + fetchNanos + computeNanos + outputNanos);
+        return String.format(Locale.ROOT, """
+                        Performance report:
+                          lines: %d (%d processed, %d failed) in %.3f s, %.1f lines/s
+                          time by stage: parse %s, validate %s, fetch %s, compute %s, output %s
+                          NBP table requests: %d made, %d avoided
+                          per-line latency: p50 %.3f ms, p95 %.3f ms, p99 %.3f ms
+                          peak retained results: %d""",
+                lines, processedLines, failedLines, wallNanos / 1e9, linesPerSecond(),
+                stage(parseNanos, stageTotal), stage(validateNanos, stageTotal), stage(fetchNanos, stageTotal),
+                stage(computeNanos, stageTotal), stage(outputNanos, stageTotal),
+                tableFetches, tableFetchesAvoided,
+                p50LineNanos / 1e6, p95LineNanos / 1e6, p99LineNanos / 1e6,
+                peakRetainedResults);
+    }
+
+    private static String stage(long nanos, long total) {
+        return String.format(Locale.ROOT, "%.3f ms (%.1f%%)", nanos / 1e6, 100.0 * nanos / total);
+    }
+}
@@ -0,0 +1,172 @@
+package org.currencygoldexchangeapp.datamodels;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalDouble;
+
+/**
+ * Gold prices ordered by date, kept in primitive arrays. Sparse tables built up front answer
+ * max/min queries over any index range in constant time.
+ */
+public class GoldValueSeries {
+    private final int[] epochDays;
+    private final double[] prices;
+    private final double[][] maxTable;
+    private final double[][] minTable;
+
+    private GoldValueSeries(int[] epochDays, double[] prices) {
+        this.epochDays = epochDays;
+        this.prices = prices;
+        this.maxTable = buildSparseTable(prices, true);
+        this.minTable = buildSparseTable(prices, false);
+    }
+
+    public static GoldValueSeries fromGoldValues(List<GoldValue> goldValues) {
+        List<GoldValue> sortedGoldValues = goldValues.stream()
+                .sorted(Comparator.comparing(GoldValue::getEffectiveDate))
+                .toList();
+
+        int[] epochDays = new int[sortedGoldValues.size()];
+        double[] prices = new double[sortedGoldValues.size()];
+        int size = 0;
+
+        for (GoldValue goldValue : sortedGoldValues) {
+            int epochDay = (int) LocalDate.parse(goldValue.getEffectiveDate()).toEpochDay();
+            if (size > 0 && epochDays[size - 1] == epochDay) {
+                size--;
+            }
+            epochDays[size] = epochDay;
+            prices[size] = goldValue.getValue();
+            size++;
+        }
+
+        return new GoldValueSeries(Arrays.copyOf(epochDays, size), Arrays.copyOf(prices, size));
+    }
+
+    /**
+     * Returns a series with the given prices added. They replace prices already present for the same date. The
+     * existing days are merged in order rather than sorted again.
+     */
+    public GoldValueSeries withGoldValues(List<GoldValue> goldValues) {
+        GoldValueSeries added = fromGoldValues(goldValues);
+        if (added.isEmpty()) {
+            return this;
+        }
+
+        int[] mergedEpochDays = new int[epochDays.length + added.epochDays.length];
+        double[] mergedPrices = new double[mergedEpochDays.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+
+        while (i < epochDays.length || j < added.epochDays.length) {
+            if (j == added.epochDays.length || (i < epochDays.length && epochDays[i] < added.epochDays[j])) {
+                mergedEpochDays[size] = epochDays[i];
+                mergedPrices[size++] = prices[i++];
+            } else {
+                if (i < epochDays.length && epochDays[i] == added.epochDays[j]) {
+                    i++;
+                }
+                mergedEpochDays[size] = added.epochDays[j];
+                mergedPrices[size++] = added.prices[j++];
+            }
+        }
+
+        return new GoldValueSeries(Arrays.copyOf(mergedEpochDays, size), Arrays.copyOf(mergedPrices, size));
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    public LocalDate getDate(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public double getPrice(int index) {
+        return prices[index];
+    }
+
+    public int indexOf(LocalDate date) {
+        int index = Arrays.binarySearch(epochDays, (int) date.toEpochDay());
+        return index >= 0 ? index : -1;
+    }
+
+    public OptionalDouble getPriceOn(LocalDate date) {
+        int index = indexOf(date);
+        return index >= 0 ? OptionalDouble.of(prices[index]) : OptionalDouble.empty();
+    }
+
+    public double maxPrice(int fromIndex, int toIndex) {
+        checkIndexRange(fromIndex, toIndex);
+        int level = level(fromIndex, toIndex);
+        return Math.max(maxTable[level][fromIndex], maxTable[level][toIndex - (1 << level) + 1]);
+    }
+
+    public double minPrice(int fromIndex, int toIndex) {
+        checkIndexRange(fromIndex, toIndex);
+        int level = level(fromIndex, toIndex);
+        return Math.min(minTable[level][fromIndex], minTable[level][toIndex - (1 << level) + 1]);
+    }
+
+    public OptionalDouble maxPriceBetween(LocalDate startDate, LocalDate endDate) {
+        int fromIndex = firstIndexOnOrAfter(startDate);
+        int toIndex = lastIndexOnOrBefore(endDate);
+        return fromIndex <= toIndex ? OptionalDouble.of(maxPrice(fromIndex, toIndex)) : OptionalDouble.empty();
+    }
+
+    public OptionalDouble minPriceBetween(LocalDate startDate, LocalDate endDate) {
+        int fromIndex = firstIndexOnOrAfter(startDate);
+        int toIndex = lastIndexOnOrBefore(endDate);
+        return fromIndex <= toIndex ? OptionalDouble.of(minPrice(fromIndex, toIndex)) : OptionalDouble.empty();
+    }
+
+    public int firstIndexOnOrAfter(LocalDate date) {
+        int index = Arrays.binarySearch(epochDays, (int) date.toEpochDay());
+        return index >= 0 ? index : -index - 1;
+    }
+
+    public int lastIndexOnOrBefore(LocalDate date) {
+        int index = Arrays.binarySearch(epochDays, (int) date.toEpochDay());
+        return index >= 0 ? index : -index - 2;
+    }
+
+    @Override
+    public String toString() {
+        return "gold prices=" + size() + (isEmpty() ? "" : ", from " + getDate(0) + " to " + getDate(size() - 1));
+    }
+
+    private void checkIndexRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex >= prices.length || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Invalid index range [" + fromIndex + ", " + toIndex + "] for series of size " + prices.length);
+        }
+    }
+
+    private static int level(int fromIndex, int toIndex) {
+        return 31 - Integer.numberOfLeadingZeros(toIndex - fromIndex + 1);
+    }
+
+    private static double[][] buildSparseTable(double[] values, boolean max) {
+        int levels = values.length == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(values.length);
+        double[][] table = new double[levels][];
+        table[0] = values;
+
+        for (int level = 1; level < levels; level++) {
+            int half = 1 << (level - 1);
+            double[] previous = table[level - 1];
+            double[] current = new double[values.length - (1 << level) + 1];
+            for (int i = 0; i < current.length; i++) {
+                current[i] = max ? Math.max(previous[i], previous[i + half]) : Math.min(previous[i], previous[i + half]);
+            }
+            table[level] = current;
+        }
+
+        return table;
+    }
+}
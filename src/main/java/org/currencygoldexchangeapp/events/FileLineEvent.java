@@ -0,0 +1,26 @@
+package org.currencygoldexchangeapp.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Conversion of one line of an input file, including validation and the exchange rate lookup.
+ */
+@Name("org.currencygoldexchangeapp.FileLine")
+@Label("File Line Conversion")
+@Category({"Currency Gold Exchange App", "File Conversion"})
+@Description("Conversion of one input file line")
+@StackTrace(false)
+public class FileLineEvent extends jdk.jfr.Event {
+    @Label("Line")
+    public String line;
+
+    @Label("Processed")
+    public boolean processed;
+
+    @Label("Error Reason")
+    public String errorReason;
+}
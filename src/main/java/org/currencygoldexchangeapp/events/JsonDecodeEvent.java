@@ -0,0 +1,30 @@
+package org.currencygoldexchangeapp.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code JSONMapper} decode. For streamed responses this includes reading the body from the network.
+ */
+@Name("org.currencygoldexchangeapp.JsonDecode")
+@Label("JSON Decode")
+@Category({"Currency Gold Exchange App", "JSON"})
+@Description("Decoding of an NBP API response body")
+@StackTrace(false)
+public class JsonDecodeEvent extends jdk.jfr.Event {
+    @Label("Type")
+    public String type;
+
+    @Label("Bytes")
+    @Description("Bytes (or characters, for string input) consumed by the parser")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+
+    @Label("Items")
+    @Description("Number of rates or gold prices read")
+    public int items;
+}
@@ -0,0 +1,40 @@
+package org.currencygoldexchangeapp.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP request to the NBP API, from sending it until the response headers arrive.
+ */
+@Name("org.currencygoldexchangeapp.NbpFetch")
+@Label("NBP Fetch")
+@Category({"Currency Gold Exchange App", "NBP API"})
+@Description("HTTP request to the NBP API, until the response headers arrive")
+@StackTrace(false)
+public class NbpFetchEvent extends jdk.jfr.Event {
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Currency Code")
+    public String currency;
+
+    @Label("Date")
+    @Description("Requested date, or start/end for a date range")
+    public String date;
+
+    @Label("Status Code")
+    @Description("HTTP status code, or 0 when no response was received")
+    public int statusCode;
+
+    @Label("Content Length")
+    @Description("Declared body size, or -1 when the response is chunked")
+    @DataAmount(DataAmount.BYTES)
+    public long contentLength;
+}
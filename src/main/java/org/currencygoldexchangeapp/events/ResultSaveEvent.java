@@ -0,0 +1,33 @@
+package org.currencygoldexchangeapp.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code saveResultToCSV} call, until the row is written or found to be a duplicate.
+ */
+@Name("org.currencygoldexchangeapp.ResultSave")
+@Label("Result Save")
+@Category({"Currency Gold Exchange App", "File Conversion"})
+@Description("Saving one conversion result to the day's CSV file")
+@StackTrace(false)
+public class ResultSaveEvent extends jdk.jfr.Event {
+    @Label("Directory")
+    public String directory;
+
+    @Label("Source Currency")
+    public String sourceCurrency;
+
+    @Label("Target Currency")
+    public String targetCurrency;
+
+    @Label("Date")
+    public String date;
+
+    @Label("Saved")
+    @Description("False for a duplicate row or a failed write")
+    public boolean saved;
+}
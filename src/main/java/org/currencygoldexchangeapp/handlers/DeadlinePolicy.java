@@ -0,0 +1,41 @@
+package org.currencygoldexchangeapp.handlers;
+
+import java.time.Duration;
+
+/**
+ * Bounds on how long a single NBP request may take. Every request gets {@code requestTimeout} unless it sets
+ * its own; the timeout covers the headers and reading the whole body. With hedging on, a request that has not answered by the {@code hedgeQuantile} latency of the
+ * endpoint's recent usable responses is sent a second time and the first response wins. Failed and throttled
+ * requests do not count towards that latency. Hedging starts once the endpoint has {@code minSamples} such
+ * responses, and the extra requests are capped at about {@code maxHedgeRatio} of all requests.
+ *
+ * Read from system properties:
+ *
+ *   currencygoldexchangeapp.http.requestTimeoutMillis   per-request timeout (default 10000)
+ *   currencygoldexchangeapp.http.hedging                true to hedge slow requests (default false)
+ */
+public record DeadlinePolicy(Duration requestTimeout, boolean hedging, double hedgeQuantile, int minSamples, double maxHedgeRatio) {
+    public static final String REQUEST_TIMEOUT_PROPERTY = "currencygoldexchangeapp.http.requestTimeoutMillis";
+    public static final String HEDGING_PROPERTY = "currencygoldexchangeapp.http.hedging";
+
+    public static final DeadlinePolicy DEFAULT = new DeadlinePolicy(Duration.ofSeconds(10), false, 0.95, 20, 0.05);
+
+    public DeadlinePolicy {
+        if (requestTimeout.isNegative() || requestTimeout.isZero()) {
+            throw new IllegalArgumentException("Request timeout must be positive");
+        }
+        if (hedgeQuantile <= 0 || hedgeQuantile >= 1 || maxHedgeRatio < 0 || maxHedgeRatio > 1) {
+            throw new IllegalArgumentException("Hedge quantile must be in (0, 1) and hedge ratio in [0, 1]");
+        }
+    }
+
+    public static DeadlinePolicy fromSystemProperties() {
+        Duration requestTimeout = Duration.ofMillis(Long.getLong(REQUEST_TIMEOUT_PROPERTY, DEFAULT.requestTimeout().toMillis()));
+        return new DeadlinePolicy(requestTimeout, Boolean.getBoolean(HEDGING_PROPERTY), DEFAULT.hedgeQuantile(),
+                DEFAULT.minSamples(), DEFAULT.maxHedgeRatio());
+    }
+
+    public DeadlinePolicy withHedging(boolean hedging) {
+        return new DeadlinePolicy(requestTimeout, hedging, hedgeQuantile, minSamples, maxHedgeRatio);
+    }
+}
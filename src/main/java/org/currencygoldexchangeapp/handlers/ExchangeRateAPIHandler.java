@@ -1,27 +1,72 @@
 package org.currencygoldexchangeapp.handlers;
 
+import org.currencygoldexchangeapp.cache.ExchangeRateCache;
 import org.currencygoldexchangeapp.constants.APIConstants;
 import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.datamodels.CurrencyRate;
+import org.currencygoldexchangeapp.datamodels.CurrencyRateSeries;
+import org.currencygoldexchangeapp.datamodels.ExchangeRateTable;
 import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+import org.currencygoldexchangeapp.metrics.ConversionStatistics;
+import org.currencygoldexchangeapp.metrics.HttpEndpointMetrics;
+import org.currencygoldexchangeapp.metrics.LatencyHistogram;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
+import org.currencygoldexchangeapp.utils.BusinessDayCalendar;
+import org.currencygoldexchangeapp.utils.DateRange;
 import org.currencygoldexchangeapp.utils.JSONMapper;
+import org.currencygoldexchangeapp.utils.ParallelFetcher;
+import org.currencygoldexchangeapp.utils.SingleFlight;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ExchangeRateAPIHandler {
     private static final Logger LOGGER = Logger.getLogger(ExchangeRateAPIHandler.class.getName());
-    private final HttpClient client;
+    private final NbpHttpExecutor httpExecutor;
     private final JSONMapper jsonMapper = new JSONMapper();
+    private final BusinessDayCalendar businessDayCalendar = BusinessDayCalendar.getDefault();
+    private final ExchangeRateCache cache;
+    private final SingleFlight<String, CurrencyExchange> rateRequests = new SingleFlight<>();
+    private final SingleFlight<String, ExchangeRateTable> tableRequests = new SingleFlight<>();
+    private final SingleFlight<String, List<CurrencyRate>> rangeRequests = new SingleFlight<>();
+    private final HttpEndpointMetrics rateMetrics;
+    private final HttpEndpointMetrics tableMetrics;
+    private final HttpEndpointMetrics rateRangeMetrics;
+    private final LatencyHistogram currencyExchangeDecodeTime;
+    private final LatencyHistogram tableDecodeTime;
+    private final LongAdder batchedTableLookups;
+    private final LongAdder tableBatches;
+    private final LatencyHistogram tableBatchWindow;
 
     public ExchangeRateAPIHandler(HttpClient client) {
-        this.client = client;
+        this(client, new ExchangeRateCache());
+    }
+
+    public ExchangeRateAPIHandler(HttpClient client, ExchangeRateCache cache) {
+        this.httpExecutor = NbpHttpExecutor.forClient(client);
+        this.cache = cache;
+
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        this.rateMetrics = metrics.endpoint("nbp.rates");
+        this.tableMetrics = metrics.endpoint("nbp.tables");
+        this.rateRangeMetrics = metrics.endpoint("nbp.rates.range");
+        this.currencyExchangeDecodeTime = metrics.histogram("json.decode.currencyExchange");
+        this.tableDecodeTime = metrics.histogram("json.decode.table");
+        this.batchedTableLookups = metrics.counter("nbp.tables.batch.lookups");
+        this.tableBatches = metrics.counter("nbp.tables.batch.requests");
+        this.tableBatchWindow = metrics.histogram("nbp.tables.batch.window");
     }
 
     public CurrencyExchange getExchangeRateSingleCurrency(String currency, String date) {
@@ -29,33 +74,186 @@ public class ExchangeRateAPIHandler {
             date = LocalDate.now().toString();
         }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(APIConstants.EXCHANGE_RATE_API_URL + "rates/C/" + currency + "/" + date + "/"))
-                .GET()
-                .build();
+        if (businessDayCalendar.isKnownNonBusinessDay(date)) {
+            throw new DataNotFoundException();
+        }
+
+        Optional<CurrencyExchange> cachedCurrencyExchange = cache.get(currency, date);
+        if (cachedCurrencyExchange.isPresent()) {
+            return cachedCurrencyExchange.get();
+        }
+
+        String requestDate = date;
+        CurrencyExchange currencyExchange = rateRequests.execute(currency.toUpperCase() + "/" + date,
+                () -> fetchExchangeRateSingleCurrency(currency, requestDate));
+
+        // Coalesced callers share one response, so each of them gets its own copy to modify.
+        return copyOf(currencyExchange);
+    }
+
+    public ExchangeRateTable getExchangeRateTable(String date) {
+        return getExchangeRateTable(date, null);
+    }
+
+    /**
+     * Like {@link #getExchangeRateTable(String)}, and records in the given statistics when the lookup sends a
+     * table request of its own, i.e. is neither answered from the cache nor shares a request already in flight.
+     */
+    public ExchangeRateTable getExchangeRateTable(String date, ConversionStatistics statistics) {
+        if (date.isEmpty()) {
+            date = LocalDate.now().toString();
+        }
+
+        if (businessDayCalendar.isKnownNonBusinessDay(date)) {
+            throw new DataNotFoundException();
+        }
+
+        Optional<ExchangeRateTable> cachedTable = cache.getTable(date);
+        if (cachedTable.isPresent()) {
+            return cachedTable.get();
+        }
+
+        // Lookups of a date fold into the table request already in flight for it, so each request serves a batch
+        // collected for as long as the request takes.
+        batchedTableLookups.increment();
+        String requestDate = date;
+        return tableRequests.execute(date, () -> {
+            tableBatches.increment();
+            if (statistics != null) {
+                statistics.recordTableFetch();
+            }
+            long windowStartNanos = System.nanoTime();
+            try {
+                return fetchExchangeRateTable(requestDate);
+            } finally {
+                tableBatchWindow.recordSince(windowStartNanos);
+            }
+        });
+    }
+
+    public CurrencyRateSeries getExchangeRatesForDateRange(String currency, String startDate, String endDate) {
+        if (currency == null || startDate == null || endDate == null) {
+            throw new DataNotFoundException();
+        }
+
+        if (startDate.isEmpty() || endDate.isEmpty()) {
+            throw new DataNotFoundException();
+        }
+
+        List<DateRange> chunks = DateRange.split(LocalDate.parse(startDate), LocalDate.parse(endDate), APIConstants.MAX_EXCHANGE_RATE_RANGE_DAYS);
+        List<CurrencyRate> rates = ParallelFetcher.fetchAll(chunks, APIConstants.MAX_PARALLEL_RANGE_REQUESTS, chunk -> fetchRatesForChunk(currency, chunk));
+
+        if (rates.isEmpty()) {
+            throw new DataNotFoundException();
+        }
 
-        HttpResponse<String> response = getHttpResponse(request);
+        return CurrencyRateSeries.fromRates(currency.toUpperCase(), rates);
+    }
 
-        return handleHttpResponse(response);
+    public ExchangeRateCache getCache() {
+        return cache;
     }
 
-    private HttpResponse<String> getHttpResponse(HttpRequest request) {
+    private CurrencyExchange fetchExchangeRateSingleCurrency(String currency, String date) {
+        HttpResponse<InputStream> response = httpExecutor.send(buildRequest("rates/C/" + currency + "/" + date + "/"), rateMetrics, currency, date);
+
         try {
-            return client.send(request, HttpResponse.BodyHandlers.ofString());
-        } catch (IOException | InterruptedException e) {
-            LOGGER.log(Level.SEVERE, "An error occurred while making the HTTP request.", e);
+            CurrencyExchange currencyExchange = handleHttpResponse(response);
+            cache.put(currency, date, currencyExchange);
+            return currencyExchange;
+        } catch (DataNotFoundException e) {
+            cache.putNotFound(currency, date);
+            throw e;
+        }
+    }
+
+    private ExchangeRateTable fetchExchangeRateTable(String date) {
+        HttpResponse<InputStream> response = httpExecutor.send(buildRequest("tables/C/" + date + "/"), tableMetrics, null, date);
+
+        try {
+            ExchangeRateTable table = handleHttpResponseForTable(response);
+            cache.putTable(date, table);
+            return table;
+        } catch (DataNotFoundException e) {
+            cache.putTableNotFound(date);
+            throw e;
+        }
+    }
+
+    private List<CurrencyRate> fetchRatesForChunk(String currency, DateRange chunk) {
+        if (businessDayCalendar.businessDaysBetween(chunk.start(), chunk.end()) == 0) {
+            return Collections.emptyList();
+        }
+
+        String path = "rates/C/" + currency + "/" + chunk.start() + "/" + chunk.end() + "/";
+
+        return rangeRequests.execute(path.toUpperCase(), () -> {
+            HttpResponse<InputStream> response = httpExecutor.send(buildRequest(path), rateRangeMetrics, currency, chunk.start() + "/" + chunk.end());
+
+            try {
+                CurrencyExchange currencyExchange = handleHttpResponse(response);
+                return Collections.unmodifiableList(currencyExchange.getRates());
+            } catch (DataNotFoundException e) {
+                return Collections.emptyList();
+            }
+        });
+    }
+
+    private static CurrencyExchange copyOf(CurrencyExchange currencyExchange) {
+        CurrencyExchange copy = new CurrencyExchange();
+        copy.setCode(currencyExchange.getCode());
+        copy.setRates(currencyExchange.getRates());
+        copy.setBid(currencyExchange.getBid());
+        copy.setAsk(currencyExchange.getAsk());
+        return copy;
+    }
+
+    private HttpRequest buildRequest(String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(APIConstants.EXCHANGE_RATE_API_URL + path))
+                .GET()
+                .build();
+    }
 
-            throw new RuntimeException("An error occurred while making the HTTP request.", e);
+    private CurrencyExchange handleHttpResponse(HttpResponse<InputStream> response) {
+        if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+            discardBody(response);
+        }
+
+        if (response.statusCode() == HttpURLConnection.HTTP_OK) {
+            long decodeStartNanos = System.nanoTime();
+            CurrencyExchange currencyExchange = jsonMapper.deserializeJsonToCurrencyExchange(response.body());
+            currencyExchangeDecodeTime.recordSince(decodeStartNanos);
+            return currencyExchange;
+        } else if (response.statusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+            throw new DataNotFoundException();
+        } else {
+            throw new RuntimeException("Failed to fetch post. HTTP status code: " + response.statusCode());
         }
     }
 
-    private CurrencyExchange handleHttpResponse(HttpResponse<String> response) {
+    private ExchangeRateTable handleHttpResponseForTable(HttpResponse<InputStream> response) {
+        if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+            discardBody(response);
+        }
+
         if (response.statusCode() == HttpURLConnection.HTTP_OK) {
-            return jsonMapper.deserializeJsonToCurrencyExchange(response.body());
+            long decodeStartNanos = System.nanoTime();
+            ExchangeRateTable table = jsonMapper.deserializeJsonToExchangeRateTable(response.body());
+            tableDecodeTime.recordSince(decodeStartNanos);
+            return table;
         } else if (response.statusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
             throw new DataNotFoundException();
         } else {
             throw new RuntimeException("Failed to fetch post. HTTP status code: " + response.statusCode());
         }
     }
+
+    private void discardBody(HttpResponse<InputStream> response) {
+        try (InputStream ignored = response.body()) {
+            // Closing the unread body releases the connection back to the pool.
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to close the HTTP response body.", e);
+        }
+    }
 }
\ No newline at end of file
@@ -1,10 +1,17 @@
 package org.currencygoldexchangeapp.handlers;
 
+import org.currencygoldexchangeapp.cache.CurrencyRegistry;
+import org.currencygoldexchangeapp.datamodels.ConversionResult;
 import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.datamodels.FileRunReport;
+import org.currencygoldexchangeapp.events.FileLineEvent;
 import org.currencygoldexchangeapp.exceptions.CurrencyNotFoundException;
 import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+import org.currencygoldexchangeapp.exceptions.ServiceUnavailableException;
+import org.currencygoldexchangeapp.metrics.ConversionStatistics;
+import org.currencygoldexchangeapp.metrics.LatencyHistogram;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
 import org.currencygoldexchangeapp.services.CurrencyExchangeCalculateService;
-import org.currencygoldexchangeapp.utils.InputUtility;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -15,27 +22,113 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
 
 public class ExchangeRateFileReaderHandler {
+    public static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+    private static final DateTimeFormatter FILE_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yy");
+    private static final DateTimeFormatter API_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int LOOK_AHEAD_PER_SLOT = 4;
+
     private final CurrencyExchangeCalculateService currencyExchangeCalculateService;
-    private final Map<String, String> errorMessages;
-    private final Map<String, Double> exchangeRatesFromFile;
-    private String errorReason;
+    private final CurrencyRegistry currencyRegistry = CurrencyRegistry.getDefault();
+    private final LatencyHistogram lineProcessingTime;
+    private volatile Map<String, String> errorMessages;
+    private volatile FileRunReport lastRunReport;
 
     public ExchangeRateFileReaderHandler(CurrencyExchangeCalculateService currencyExchangeCalculateService) {
         this.currencyExchangeCalculateService = currencyExchangeCalculateService;
-        this.errorMessages = new HashMap<>();
-        this.exchangeRatesFromFile = new HashMap<>();
+        this.errorMessages = new LinkedHashMap<>();
+
+        this.lineProcessingTime = MetricsRegistry.getDefault().histogram("file.line");
     }
 
     public Map<String, Double> readExchangeRates(String fileToReadPath) throws IOException {
+        RunStatistics statistics = new RunStatistics();
+        RunResults runResults = new RunResults();
+
+        try (BufferedReader reader = openFile(fileToReadPath)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Each line's result is added before the next line is read, so one result is held at a time.
+                runResults.add(processExchangeRateLine(line, statistics), line);
+                statistics.recordRetainedResults(1);
+            }
+        }
+
+        return finishRun(runResults, statistics);
+    }
+
+    public Map<String, Double> readExchangeRatesInParallel(String fileToReadPath, int maxConcurrency) throws IOException {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be a positive number");
+        }
+
+        RunStatistics statistics = new RunStatistics();
+        RunResults runResults = new RunResults();
+        // Lines that finished ahead of an earlier, slower line wait here until they can be added in file order.
+        Map<Integer, NumberedOutcome> completed = new HashMap<>();
+        Set<Future<NumberedOutcome>> pending = new HashSet<>();
+        int maxLookAhead = maxConcurrency * LOOK_AHEAD_PER_SLOT;
+        int submittedLines = 0;
+
+        try (BufferedReader reader = openFile(fileToReadPath);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<NumberedOutcome> completedLines = new ExecutorCompletionService<>(executor);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Reading on only once a line has finished keeps at most maxConcurrency lines submitted at once, and
+                // at most maxLookAhead lines past the first one not yet added.
+                while (pending.size() == maxConcurrency || submittedLines - runResults.lines == maxLookAhead) {
+                    complete(awaitNextOutcome(completedLines, pending), completed, runResults, statistics);
+                }
+                int lineIndex = submittedLines++;
+                String inputLine = line;
+                pending.add(completedLines.submit(() -> new NumberedOutcome(lineIndex, inputLine, processExchangeRateLine(inputLine, statistics))));
+            }
+
+            while (!pending.isEmpty()) {
+                complete(awaitNextOutcome(completedLines, pending), completed, runResults, statistics);
+            }
+        }
+
+        return finishRun(runResults, statistics);
+    }
+
+    /**
+     * Converts a single line in the file format, e.g. "USD 100 EUR 16-01-24".
+     */
+    public ConversionResult convertLine(String line) {
+        return processExchangeRateLine(line, null);
+    }
+
+    public List<String> getErrorMessages() {
+        return new ArrayList<>(errorMessages.values());
+    }
+
+    /**
+     * Report of the last completed readExchangeRates or readExchangeRatesInParallel run, without output time.
+     */
+    public Optional<FileRunReport> getLastRunReport() {
+        return Optional.ofNullable(lastRunReport);
+    }
+
+    private BufferedReader openFile(String fileToReadPath) throws IOException {
         Path filePath = Paths.get(fileToReadPath);
 
         if (!java.nio.file.Files.exists(filePath)) {
             throw new IOException("NonExistingFileError: The file does not exist: " + filePath);
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath.toFile()))) {
+        BufferedReader reader = new BufferedReader(new FileReader(filePath.toFile()));
+        try {
             if (!reader.ready()) {
                 throw new IOException("EmptyFileError: The file is empty: " + filePath);
             }
@@ -43,78 +136,132 @@ public class ExchangeRateFileReaderHandler {
             if (!filePath.toString().toLowerCase().endsWith(".csv")) {
                 throw new IOException("InvalidFileFormatError: Invalid file format. Expected CSV file: " + filePath);
             }
+            return reader;
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+    }
 
-            String line;
-            int lineNumber = 0;
+    private Map<String, Double> finishRun(RunResults runResults, RunStatistics statistics) {
+        this.errorMessages = runResults.errors;
+        this.lastRunReport = statistics.toReport(runResults.lines, runResults.results.size(), runResults.lines - runResults.results.size());
+        return runResults.results;
+    }
 
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                boolean isLineProcessed = processExchangeRateLine(line);
-                if (!isLineProcessed) {
-                    recordError(errorReason, lineNumber, line);
-                }
+    /**
+     * Waits for whichever line finishes next. On failure the lines still pending are cancelled, so closing the
+     * executor does not wait for them.
+     */
+    private NumberedOutcome awaitNextOutcome(CompletionService<NumberedOutcome> completedLines, Set<Future<NumberedOutcome>> pending) {
+        try {
+            Future<NumberedOutcome> future = completedLines.take();
+            pending.remove(future);
+            return future.get();
+        } catch (ExecutionException e) {
+            pending.forEach(other -> other.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.forEach(other -> other.cancel(true));
+            throw new RuntimeException("Interrupted while processing the file.", e);
+        }
+    }
 
-            return exchangeRatesFromFile;
+    private static void complete(NumberedOutcome numberedOutcome, Map<Integer, NumberedOutcome> completed, RunResults runResults,
+                                 RunStatistics statistics) {
+        completed.put(numberedOutcome.lineIndex(), numberedOutcome);
+        statistics.recordRetainedResults(completed.size());
+
+        NumberedOutcome next;
+        while ((next = completed.remove(runResults.lines)) != null) {
+            runResults.add(next.outcome(), next.line());
         }
     }
 
-    public List<String> getErrorMessages() {
-        return new ArrayList<>(errorMessages.values());
+    private ConversionResult processExchangeRateLine(String line, RunStatistics statistics) {
+        FileLineEvent event = new FileLineEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        ConversionResult result = null;
+        try {
+            result = convertExchangeRateLine(line, statistics);
+            return result;
+        } finally {
+            long lineNanos = System.nanoTime() - startNanos;
+            lineProcessingTime.record(lineNanos);
+            if (statistics != null) {
+                statistics.lineLatency.record(lineNanos);
+            }
+            if (event.shouldCommit()) {
+                event.line = line;
+                event.processed = result != null && result.isProcessed();
+                event.errorReason = result == null ? "Unexpected error" : result.errorReason();
+                event.commit();
+            }
+        }
     }
 
-    private boolean processExchangeRateLine(String line) {
-        String[] parts = line.split(" ");
+    private ConversionResult convertExchangeRateLine(String line, RunStatistics statistics) {
+        long parseStartNanos = System.nanoTime();
+        ParsedLine parsedLine = parseLine(line);
+        long validateStartNanos = System.nanoTime();
+        if (statistics != null) {
+            statistics.parseNanos.add(validateStartNanos - parseStartNanos);
+        }
+        if (parsedLine.errorReason() != null) {
+            return ConversionResult.failed(parsedLine.errorReason());
+        }
 
-        if (parts.length == 4) {
-            String sourceCurrency = parts[0].trim();
-            String amountAsString = parts[1].trim();
-            String targetCurrency = parts[2].trim();
-            String dateString = parts[3];
+        String validationError = validateCurrencies(parsedLine);
+        if (statistics != null) {
+            statistics.validateNanos.add(System.nanoTime() - validateStartNanos);
+        }
+        if (validationError != null) {
+            return ConversionResult.failed(validationError);
+        }
 
-            Optional<Double> parsedAmountOptional = parseAmount(amountAsString);
-            double amount;
-            if (parsedAmountOptional.isPresent() && parsedAmountOptional.get() > 0) {
-                amount = parsedAmountOptional.get();
-            } else {
-                errorReason = "Invalid amount";
-                return false;
-            }
+        if (statistics != null) {
+            statistics.rateLookups.increment();
+        }
+        // "_" + line  <- added, I have to check why its showing me result in different way
+        String uniqueKey = parsedLine.sourceCurrency() + "_" + parsedLine.amountAsString() + "_" + parsedLine.targetCurrency() + "_" + parsedLine.dateString();
 
-            if (!isValidDateFormat(dateString)) {
-                errorReason = "Invalid date format";
-                return false;
-            }
+        return calculateExchangeRate(uniqueKey, parsedLine.sourceCurrency(), parsedLine.amount(), parsedLine.targetCurrency(),
+                parsedLine.date().format(API_DATE_FORMATTER), statistics == null ? null : statistics.conversions);
+    }
 
-            LocalDate date = LocalDate.parse(dateString, DateTimeFormatter.ofPattern("dd-MM-yy"));
-            String formattedDate = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    private ParsedLine parseLine(String line) {
+        String[] parts = line.split(" ");
 
-            Optional<String> validatedSourceCurrencyOptional = validateSourceCurrency(sourceCurrency, formattedDate);
-            if(validatedSourceCurrencyOptional.isPresent()){
-                sourceCurrency = validatedSourceCurrencyOptional.get();
-            } else {
-                errorReason = "Invalid source currency code";
-                return false;
-            }
+        if (parts.length != 4) {
+            return ParsedLine.failed("Invalid line format");
+        }
 
-            Optional<String> validatedTargetCurrencyOptional = validateTargetCurrency(targetCurrency, formattedDate);
-            if (validatedTargetCurrencyOptional.isPresent()) {
-                targetCurrency = validatedTargetCurrencyOptional.get();
-            } else {
-                errorReason = "Invalid target currency code";
-                return false;
-            }
+        Optional<Double> parsedAmountOptional = parseAmount(parts[1].trim());
+        if (parsedAmountOptional.isEmpty() || parsedAmountOptional.get() <= 0) {
+            return ParsedLine.failed("Invalid amount");
+        }
 
-            double exchangeRate = calculateExchangeRate(sourceCurrency, amount, targetCurrency, formattedDate);
-            // "_" + line  <- added, I have to check why its showing me result in different way
-            String uniqueKey = sourceCurrency + "_" + parts[1] + "_" + targetCurrency + "_" + dateString;
+        Optional<LocalDate> parsedDateOptional = parseDate(parts[3]);
+        if (parsedDateOptional.isEmpty()) {
+            return ParsedLine.failed("Invalid date format");
+        }
 
-            exchangeRatesFromFile.put(uniqueKey, exchangeRate);
-            return true;
-        } else {
-            errorReason = "Invalid line format";
-            return false;
+        return new ParsedLine(parts[0].trim(), parts[1], parsedAmountOptional.get(), parts[2].trim(), parts[3], parsedDateOptional.get(), null);
+    }
+
+    private String validateCurrencies(ParsedLine parsedLine) {
+        if (validateSourceCurrency(parsedLine.sourceCurrency(), parsedLine.date()).isEmpty()) {
+            return "Invalid source currency code";
+        }
+        if (validateTargetCurrency(parsedLine.targetCurrency(), parsedLine.date()).isEmpty()) {
+            return "Invalid target currency code";
         }
+        return null;
     }
 
     private Optional<Double> parseAmount(String amountString) {
@@ -125,46 +272,96 @@ public class ExchangeRateFileReaderHandler {
         }
     }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
-    private boolean isValidDateFormat(String dateString) {
+    private Optional<LocalDate> parseDate(String dateString) {
         try {
-            LocalDate.parse(dateString, DateTimeFormatter.ofPattern("dd-MM-yy"));
-            return true;
+            return Optional.of(LocalDate.parse(dateString, FILE_DATE_FORMATTER));
         } catch (DateTimeParseException e) {
-            return false;
+            return Optional.empty();
         }
     }
 
-    private Optional<String> validateSourceCurrency(String sourceCurrency, String formattedDate) {
-        if (InputUtility.isCurrencyAvailable(sourceCurrency, formattedDate)) {
+    private Optional<String> validateSourceCurrency(String sourceCurrency, LocalDate date) {
+        if (currencyRegistry.isAvailable(sourceCurrency, date)) {
             return Optional.of(sourceCurrency);
         } else {
             return Optional.empty();
         }
     }
 
-    private Optional<String> validateTargetCurrency(String targetCurrency, String formattedDate) {
-        if (InputUtility.isCurrencyAvailable(targetCurrency, formattedDate) || targetCurrency.equalsIgnoreCase("pln")) {
+    private Optional<String> validateTargetCurrency(String targetCurrency, LocalDate date) {
+        if (currencyRegistry.isAvailable(targetCurrency, date) || targetCurrency.equalsIgnoreCase("pln")) {
             return Optional.of(targetCurrency);
         } else {
             return Optional.empty();
         }
     }
 
-    private void recordError(String errorReason, int lineNumber, String line) {
-        String errorKey = errorReason + " in the file at line " + lineNumber;
-        String errorMessage = errorKey + ": " + line;
-        errorMessages.put(errorKey, errorMessage);
+    private ConversionResult calculateExchangeRate(String uniqueKey, String sourceCurrency, double amount, String targetCurrency, String date,
+                                                   ConversionStatistics conversions) {
+        try {
+            CurrencyExchange result = currencyExchangeCalculateService.calculateExchangeAmount(sourceCurrency, amount, targetCurrency, date, conversions);
+            return ConversionResult.processed(uniqueKey, result.getAsk());
+        } catch (DataNotFoundException | CurrencyNotFoundException | ServiceUnavailableException e) {
+            return ConversionResult.failed("ExchangeRateCalculationError (" + e.getMessage() + ")");
+        }
     }
 
-    private double calculateExchangeRate(String sourceCurrency, double amount, String targetCurrency, String date) {
-        try {
-            CurrencyExchange result = currencyExchangeCalculateService.calculateExchangeAmount(sourceCurrency, amount, targetCurrency, date);
-            return result.getAsk();
-        } catch (DataNotFoundException | CurrencyNotFoundException e) {
-            errorReason = "ExchangeRateCalculationError (" + e.getMessage() + ")";
+    private record NumberedOutcome(int lineIndex, String line, ConversionResult outcome) {
+    }
+
+    private record ParsedLine(String sourceCurrency, String amountAsString, double amount, String targetCurrency, String dateString,
+                              LocalDate date, String errorReason) {
+        static ParsedLine failed(String errorReason) {
+            return new ParsedLine(null, null, 0, null, null, null, errorReason);
         }
+    }
+
+    /**
+     * Results and error messages of a run, collected line by line in file order.
+     */
+    private static final class RunResults {
+        private final Map<String, Double> results = new LinkedHashMap<>();
+        private final Map<String, String> errors = new LinkedHashMap<>();
+        private int lines;
 
-        return 0.0;
+        void add(ConversionResult outcome, String line) {
+            lines++;
+            if (outcome.isProcessed()) {
+                results.put(outcome.uniqueKey(), outcome.exchangeRate());
+            } else {
+                String errorKey = outcome.errorReason() + " in the file at line " + lines;
+                errors.put(errorKey, errorKey + ": " + line);
+            }
+        }
+    }
+
+    /**
+     * Per-run counters. Fetch and compute time and table fetches are recorded by the calculate service for the
+     * lines of this run only, so other traffic in the process does not show up in the report.
+     */
+    private static final class RunStatistics {
+        private final long startNanos = System.nanoTime();
+        private final LongAdder parseNanos = new LongAdder();
+        private final LongAdder validateNanos = new LongAdder();
+        private final LongAdder rateLookups = new LongAdder();
+        private final LatencyHistogram lineLatency = new LatencyHistogram();
+        private final ConversionStatistics conversions = new ConversionStatistics();
+        private int peakRetainedResults;
+
+        // Called only by the thread reading the file.
+        void recordRetainedResults(int retainedResults) {
+            peakRetainedResults = Math.max(peakRetainedResults, retainedResults);
+        }
+
+        FileRunReport toReport(int lines, int processedLines, int failedLines) {
+            // Each lookup sends at most one table request, so the lookups without one were served by the cache or
+            // shared a request already in flight.
+            long tableFetches = conversions.getTableFetches();
+            return new FileRunReport(lines, processedLines, failedLines, System.nanoTime() - startNanos,
+                    parseNanos.sum(), validateNanos.sum(), conversions.getFetchNanos(), conversions.getComputeNanos(), 0,
+                    tableFetches, rateLookups.sum() - tableFetches,
+                    lineLatency.getPercentileNanos(0.50), lineLatency.getPercentileNanos(0.95), lineLatency.getPercentileNanos(0.99),
+                    peakRetainedResults);
+        }
     }
 }
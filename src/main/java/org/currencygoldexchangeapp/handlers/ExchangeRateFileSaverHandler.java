@@ -1,48 +1,69 @@
 package org.currencygoldexchangeapp.handlers;
 
 import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.events.ResultSaveEvent;
+import org.currencygoldexchangeapp.metrics.LatencyHistogram;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Clock;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class ExchangeRateFileSaverHandler {
-    public boolean saveResultToCSV(Path inputFilePath, String sourceCurrencyCode, double amount, String targetCurrencyCode, LocalDate date, CurrencyExchange result) {
-        LocalDate currentDate = LocalDate.now();
-        String formattedDate = currentDate.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-
-        String filePath = inputFilePath + "/resultQueryToAPI_" + formattedDate + ".csv";
-        try (FileWriter fileWriter = new FileWriter(filePath, true);
-             BufferedWriter writer = new BufferedWriter(fileWriter)) {
-
-            var getFilePath = Paths.get(filePath);
-
-            String csvLine = String.format("%s,%.2f,%s,%s,%.4f,%.4f\n", sourceCurrencyCode, amount, targetCurrencyCode, date, result.getBid(), result.getAsk());
-
-            if (!java.nio.file.Files.exists(getFilePath) || java.nio.file.Files.size(getFilePath) == 0) {
-                writer.write("SourceCurrency,Amount,TargetCurrency,Date,Bid,Ask\n");
-                writer.write(csvLine);
-                return true;
-            } else {
-                try (Stream<String> lines = Files.lines(getFilePath)) {
-                    boolean hasSameLine = lines.anyMatch(line -> line.trim().equalsIgnoreCase(csvLine.trim()));
-                    if (!hasSameLine) {
-                        writer.write(csvLine);
-                        return true;
-                    }
-                }
-            }
+public class ExchangeRateFileSaverHandler implements AutoCloseable {
+    private final ResultFileWriter.DurabilityMode durabilityMode;
+    private final Map<Path, ResultFileWriter> writersByDirectory = new ConcurrentHashMap<>();
+    private final LatencyHistogram saveTime = MetricsRegistry.getDefault().histogram("file.save");
 
+    public ExchangeRateFileSaverHandler() {
+        this(ResultFileWriter.DurabilityMode.BUFFERED);
+    }
+
+    public ExchangeRateFileSaverHandler(ResultFileWriter.DurabilityMode durabilityMode) {
+        this.durabilityMode = durabilityMode;
+    }
+
+    public boolean saveResultToCSV(Path inputFilePath, String sourceCurrencyCode, double amount, String targetCurrencyCode, LocalDate date, CurrencyExchange result) {
+        ResultSaveEvent event = new ResultSaveEvent();
+        event.begin();
+        boolean saved = false;
+        try {
+            saved = saveResultToCSVAsync(inputFilePath, sourceCurrencyCode, amount, targetCurrencyCode, date, result).join();
+            return saved;
+        } catch (CompletionException e) {
+            System.err.println("An error occurred while saving results to CSV file: " + e.getCause().getMessage());
             return false;
-        } catch (IOException e) {
-            System.err.println("An error occurred while saving results to CSV file: " + e.getMessage());
-            return false;
+        } finally {
+            if (event.shouldCommit()) {
+                event.directory = String.valueOf(inputFilePath);
+                event.sourceCurrency = sourceCurrencyCode;
+                event.targetCurrency = targetCurrencyCode;
+                event.date = String.valueOf(date);
+                event.saved = saved;
+                event.commit();
+            }
         }
     }
+
+    /**
+     * Queues the result for the day's CSV file in the given directory. The future completes with false for a
+     * row the file already contains, and with true once the row has been written.
+     */
+    public CompletableFuture<Boolean> saveResultToCSVAsync(Path inputFilePath, String sourceCurrencyCode, double amount, String targetCurrencyCode, LocalDate date, CurrencyExchange result) {
+        long startNanos = System.nanoTime();
+        ResultFileWriter writer = writersByDirectory.computeIfAbsent(inputFilePath,
+                directory -> new ResultFileWriter(directory, durabilityMode, ResultFileWriter.DEFAULT_MAX_BATCH_ROWS, ResultFileWriter.DEFAULT_MAX_BATCH_DELAY, Clock.systemDefaultZone()));
+        // Measured until the row is written (or found to be a duplicate), including time spent waiting for the batch.
+        return writer.submit(sourceCurrencyCode, amount, targetCurrencyCode, date, result.getBid(), result.getAsk())
+                .whenComplete((saved, error) -> saveTime.recordSince(startNanos));
+    }
+
+    @Override
+    public void close() {
+        writersByDirectory.values().forEach(ResultFileWriter::close);
+        writersByDirectory.clear();
+    }
 }
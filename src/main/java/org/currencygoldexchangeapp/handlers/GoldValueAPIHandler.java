@@ -4,26 +4,41 @@ import org.currencygoldexchangeapp.constants.APIConstants;
 import org.currencygoldexchangeapp.datamodels.GoldValue;
 import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
 import org.currencygoldexchangeapp.exceptions.ExceededResultsLimitException;
+import org.currencygoldexchangeapp.metrics.HttpEndpointMetrics;
+import org.currencygoldexchangeapp.metrics.LatencyHistogram;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
+import org.currencygoldexchangeapp.utils.BusinessDayCalendar;
+import org.currencygoldexchangeapp.utils.DateRange;
 import org.currencygoldexchangeapp.utils.JSONMapper;
+import org.currencygoldexchangeapp.utils.ParallelFetcher;
+import org.currencygoldexchangeapp.utils.SingleFlight;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class GoldValueAPIHandler {
-    private static final Logger LOGGER = Logger.getLogger(ExchangeRateAPIHandler.class.getName());
-    private final HttpClient client;
+    private static final Logger LOGGER = Logger.getLogger(GoldValueAPIHandler.class.getName());
+    private final NbpHttpExecutor httpExecutor;
     private final JSONMapper jsonMapper = new JSONMapper();
+    private final BusinessDayCalendar businessDayCalendar = BusinessDayCalendar.getDefault();
+    private final SingleFlight<String, GoldValue> goldValueRequests = new SingleFlight<>();
+    private final SingleFlight<String, List<GoldValue>> goldRangeRequests = new SingleFlight<>();
+    private final HttpEndpointMetrics goldMetrics = MetricsRegistry.getDefault().endpoint("nbp.gold");
+    private final HttpEndpointMetrics goldRangeMetrics = MetricsRegistry.getDefault().endpoint("nbp.gold.range");
+    private final LatencyHistogram goldValuesDecodeTime = MetricsRegistry.getDefault().histogram("json.decode.goldValues");
 
     public GoldValueAPIHandler(HttpClient client) {
-        this.client = client;
+        this.httpExecutor = NbpHttpExecutor.forClient(client);
     }
 
     public GoldValue getGoldValueForSpecificDate(String date) {
@@ -35,14 +50,21 @@ public class GoldValueAPIHandler {
             date = LocalDate.now().toString();
         }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(APIConstants.GOLD_VALUE_API_URL + date))
-                .GET()
-                .build();
+        if (businessDayCalendar.isKnownNonBusinessDay(date)) {
+            throw new DataNotFoundException();
+        }
 
-        HttpResponse<String> response = getHttpResponse(request);
+        String requestDate = date;
+        return goldValueRequests.execute(date, () -> {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(APIConstants.GOLD_VALUE_API_URL + requestDate))
+                    .GET()
+                    .build();
 
-        return handleHttpResponse(response);
+            HttpResponse<InputStream> response = httpExecutor.send(request, goldMetrics, null, requestDate);
+
+            return handleHttpResponse(response);
+        });
     }
 
     public List<GoldValue> getGoldValuesForDateRange(String startDate, String endDate) {
@@ -54,29 +76,62 @@ public class GoldValueAPIHandler {
             throw new DataNotFoundException();
         }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(APIConstants.GOLD_VALUE_API_URL + startDate + "/" + endDate))
-                .GET()
-                .build();
+        LocalDate rangeStart = LocalDate.parse(startDate);
+        LocalDate rangeEnd = LocalDate.parse(endDate);
+        if (rangeEnd.isBefore(APIConstants.GOLD_VALUE_HISTORY_START)) {
+            throw new DataNotFoundException();
+        }
+        if (rangeStart.isBefore(APIConstants.GOLD_VALUE_HISTORY_START)) {
+            rangeStart = APIConstants.GOLD_VALUE_HISTORY_START;
+        }
+
+        List<DateRange> chunks = DateRange.split(rangeStart, rangeEnd, APIConstants.MAX_GOLD_VALUE_RANGE_DAYS);
+        if (chunks.size() == 1) {
+            return fetchGoldValuesForChunk(chunks.getFirst());
+        }
 
-        HttpResponse<String> response = getHttpResponse(request);
+        // Chunks are disjoint and fetched in date order, so concatenating them keeps the series sorted.
+        List<GoldValue> goldValues = ParallelFetcher.fetchAll(chunks, APIConstants.MAX_PARALLEL_RANGE_REQUESTS, chunk -> {
+            try {
+                return fetchGoldValuesForChunk(chunk);
+            } catch (DataNotFoundException e) {
+                return Collections.emptyList();
+            }
+        });
 
-        return handleHttpResponseForList(response);
-    }
+        if (goldValues.isEmpty()) {
+            throw new DataNotFoundException();
+        }
 
-    private HttpResponse<String> getHttpResponse(HttpRequest request) {
-        try {
-            return client.send(request, HttpResponse.BodyHandlers.ofString());
-        } catch (IOException | InterruptedException e) {
-            LOGGER.log(Level.SEVERE, "An error occurred while making the HTTP request.", e);
+        return Collections.unmodifiableList(goldValues);
+    }
 
-            throw new RuntimeException("An error occurred while making the HTTP request.", e);
+    private List<GoldValue> fetchGoldValuesForChunk(DateRange chunk) {
+        if (businessDayCalendar.businessDaysBetween(chunk.start(), chunk.end()) == 0) {
+            throw new DataNotFoundException();
         }
+
+        String path = chunk.start() + "/" + chunk.end();
+
+        return goldRangeRequests.execute(path, () -> {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(APIConstants.GOLD_VALUE_API_URL + path))
+                    .GET()
+                    .build();
+
+            HttpResponse<InputStream> response = httpExecutor.send(request, goldRangeMetrics, null, path);
+
+            return Collections.unmodifiableList(handleHttpResponseForList(response));
+        });
     }
 
-    private GoldValue handleHttpResponse(HttpResponse<String> response) {
+    private GoldValue handleHttpResponse(HttpResponse<InputStream> response) {
+        if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+            discardBody(response);
+        }
+
         if (response.statusCode() == HttpURLConnection.HTTP_OK) {
-            List<GoldValue> goldValues = jsonMapper.deserializeJsonToGoldValueList(response.body());
+            List<GoldValue> goldValues = decodeGoldValues(response);
             if (!goldValues.isEmpty()) {
                 return goldValues.getFirst();
             } else {
@@ -89,9 +144,13 @@ public class GoldValueAPIHandler {
         }
     }
 
-    private List<GoldValue> handleHttpResponseForList(HttpResponse<String> response) {
+    private List<GoldValue> handleHttpResponseForList(HttpResponse<InputStream> response) {
+        if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+            discardBody(response);
+        }
+
         if (response.statusCode() == HttpURLConnection.HTTP_OK) {
-            List<GoldValue> goldValues = jsonMapper.deserializeJsonToGoldValueList(response.body());
+            List<GoldValue> goldValues = decodeGoldValues(response);
             if (!goldValues.isEmpty()) {
                 return goldValues;
             } else {
@@ -105,4 +164,19 @@ public class GoldValueAPIHandler {
             throw new RuntimeException("Failed to fetch post. HTTP status code: " + response.statusCode() + ", message: " + response.statusCode());
         }
     }
-}
+
+    private List<GoldValue> decodeGoldValues(HttpResponse<InputStream> response) {
+        long decodeStartNanos = System.nanoTime();
+        List<GoldValue> goldValues = jsonMapper.deserializeJsonToGoldValueList(response.body());
+        goldValuesDecodeTime.recordSince(decodeStartNanos);
+        return goldValues;
+    }
+
+    private void discardBody(HttpResponse<InputStream> response) {
+        try (InputStream ignored = response.body()) {
+            // Closing the unread body releases the connection back to the pool.
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to close the HTTP response body.", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package org.currencygoldexchangeapp.handlers;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * How the HttpClient shared by both NBP handlers is built. Read from system properties:
+ *
+ *   currencygoldexchangeapp.http.connectTimeoutMillis   connect timeout (default 5000)
+ *   currencygoldexchangeapp.http.version                HTTP_2 (default, falls back to HTTP/1.1) or HTTP_1_1
+ *   currencygoldexchangeapp.http.executor               "default" (the client's own pool), "virtual" or a thread count
+ *
+ * Connections are kept alive and reused by the client; with HTTP/2 all requests to NBP share one connection.
+ */
+public record NbpHttpClientSettings(Duration connectTimeout, HttpClient.Version version, String executor) {
+    public static final String CONNECT_TIMEOUT_PROPERTY = "currencygoldexchangeapp.http.connectTimeoutMillis";
+    public static final String VERSION_PROPERTY = "currencygoldexchangeapp.http.version";
+    public static final String EXECUTOR_PROPERTY = "currencygoldexchangeapp.http.executor";
+
+    public static final NbpHttpClientSettings DEFAULT = new NbpHttpClientSettings(Duration.ofSeconds(5), HttpClient.Version.HTTP_2, "default");
+
+    public static NbpHttpClientSettings fromSystemProperties() {
+        Duration connectTimeout = Duration.ofMillis(Long.getLong(CONNECT_TIMEOUT_PROPERTY, DEFAULT.connectTimeout().toMillis()));
+        HttpClient.Version version = HttpClient.Version.valueOf(System.getProperty(VERSION_PROPERTY, DEFAULT.version().name()));
+        return new NbpHttpClientSettings(connectTimeout, version, System.getProperty(EXECUTOR_PROPERTY, DEFAULT.executor()));
+    }
+
+    /**
+     * Builds a client from the system properties; used wherever the application creates its NBP client.
+     */
+    public static HttpClient newConfiguredClient() {
+        return fromSystemProperties().newHttpClient();
+    }
+
+    public HttpClient newHttpClient() {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .version(version);
+        Executor clientExecutor = createExecutor();
+        if (clientExecutor != null) {
+            builder.executor(clientExecutor);
+        }
+        return builder.build();
+    }
+
+    private Executor createExecutor() {
+        if ("default".equals(executor)) {
+            return null;
+        }
+        if ("virtual".equals(executor)) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        try {
+            int threads = Integer.parseInt(executor);
+            if (threads > 0) {
+                // Daemon threads, so that the pool does not keep a finished command-line run alive.
+                return Executors.newFixedThreadPool(threads, Thread.ofPlatform().daemon().name("nbp-http-", 0).factory());
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below together with non-positive counts.
+        }
+        throw new IllegalArgumentException("Unsupported " + EXECUTOR_PROPERTY + ": " + executor);
+    }
+}
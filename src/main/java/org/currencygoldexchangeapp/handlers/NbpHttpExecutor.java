@@ -0,0 +1,509 @@
+package org.currencygoldexchangeapp.handlers;
+
+import org.currencygoldexchangeapp.events.NbpFetchEvent;
+import org.currencygoldexchangeapp.exceptions.ServiceUnavailableException;
+import org.currencygoldexchangeapp.metrics.HttpEndpointMetrics;
+import org.currencygoldexchangeapp.metrics.LatencyWindow;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
+import org.currencygoldexchangeapp.utils.AdaptiveConcurrencyLimiter;
+import org.currencygoldexchangeapp.utils.CircuitBreaker;
+
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Sends requests to the NBP API for both handlers: records metrics and flight recorder events, retries
+ * connection failures, 429 and 5xx responses with jittered backoff, and stops calling NBP through a circuit
+ * breaker once it is clearly down. An adaptive limit on requests in flight keeps parallel conversions below
+ * the point where NBP starts throttling. Responses are requested gzip-compressed and decompressed while the
+ * JSON is being parsed. Each request has a timeout that covers reading the whole body, and slow requests can be
+ * hedged (see {@link DeadlinePolicy}).
+ */
+public class NbpHttpExecutor {
+    private static final Logger LOGGER = Logger.getLogger(NbpHttpExecutor.class.getName());
+    private static final int GZIP_BUFFER_SIZE = 8192;
+    private static final double MAX_HEDGE_BURST = 10;
+    private static final int HEDGE_LATENCY_WINDOW = 200;
+    private static final Executor BODY_READER = task -> Thread.ofVirtual().name("nbp-body-reader").start(task);
+    // Values must not reference their client, or the weak keys would never be cleared.
+    private static final Map<HttpClient, SharedControls> CONTROLS_BY_CLIENT = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final HttpClient client;
+    private final RetryPolicy retryPolicy;
+    private final DeadlinePolicy deadlinePolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Clock clock;
+    private final LongAdder retries = MetricsRegistry.getDefault().counter("nbp.retries");
+    private final LongAdder rejectedCalls = MetricsRegistry.getDefault().counter("nbp.circuitBreaker.rejected");
+    private final LongAdder hedges = MetricsRegistry.getDefault().counter("nbp.hedges");
+    private final LongAdder hedgeWins = MetricsRegistry.getDefault().counter("nbp.hedges.won");
+    // Latencies of recent usable responses per endpoint; the hedge delay is taken from these.
+    private final Map<String, LatencyWindow> hedgeLatencies = new ConcurrentHashMap<>();
+    private double hedgeBudget = MAX_HEDGE_BURST;
+
+    public NbpHttpExecutor(HttpClient client) {
+        this(client, RetryPolicy.DEFAULT, DeadlinePolicy.fromSystemProperties(), new CircuitBreaker(),
+                new AdaptiveConcurrencyLimiter(), Clock.systemUTC());
+    }
+
+    public NbpHttpExecutor(HttpClient client, RetryPolicy retryPolicy, DeadlinePolicy deadlinePolicy, CircuitBreaker circuitBreaker,
+                           AdaptiveConcurrencyLimiter concurrencyLimiter, Clock clock) {
+        this.client = client;
+        this.retryPolicy = retryPolicy;
+        this.deadlinePolicy = deadlinePolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.clock = clock;
+    }
+
+    /**
+     * An executor for the given client. Executors built on the same client share one circuit breaker and one
+     * concurrency limit, so a breaker opened by failing exchange rate requests also stops gold price requests.
+     * The limit of the most recently seen client is reported as the nbp.concurrency gauges.
+     */
+    public static NbpHttpExecutor forClient(HttpClient client) {
+        SharedControls controls = CONTROLS_BY_CLIENT.computeIfAbsent(client, key -> {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter();
+            MetricsRegistry.getDefault().gauge("nbp.concurrency.limit", limiter::getLimit);
+            MetricsRegistry.getDefault().gauge("nbp.concurrency.inFlight", limiter::getInFlight);
+            return new SharedControls(new CircuitBreaker(), limiter);
+        });
+        return new NbpHttpExecutor(client, RetryPolicy.DEFAULT, DeadlinePolicy.fromSystemProperties(), controls.circuitBreaker(),
+                controls.concurrencyLimiter(), Clock.systemUTC());
+    }
+
+    /**
+     * Returns the first response that is not retryable, with its body already decompressed. Throws
+     * ServiceUnavailableException when the breaker is open or every attempt failed.
+     */
+    public HttpResponse<InputStream> send(HttpRequest request, HttpEndpointMetrics endpointMetrics, String currency, String date) {
+        HttpRequest wireRequest = prepare(request);
+        if (deadlinePolicy.hedging()) {
+            refillHedgeBudget();
+        }
+        for (int attempt = 1; ; attempt++) {
+            // The permit is taken first: waiting for it may be interrupted, and that must not strand a half-open probe.
+            long startNanos = acquirePermit();
+            if (!circuitBreaker.tryAcquire()) {
+                concurrencyLimiter.release(startNanos, AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+                rejectedCalls.increment();
+                throw new ServiceUnavailableException("The NBP API is unavailable, retry in "
+                        + circuitBreaker.getRemainingOpenTime().toSeconds() + "s");
+            }
+
+            HttpResponse<InputStream> response;
+            try {
+                response = sendOnce(wireRequest, endpointMetrics, currency, date);
+            } catch (IOException e) {
+                concurrencyLimiter.release(startNanos, AdaptiveConcurrencyLimiter.Outcome.DROPPED);
+                circuitBreaker.recordFailure();
+                if (attempt >= retryPolicy.maxAttempts()) {
+                    LOGGER.log(Level.SEVERE, "An error occurred while making the HTTP request.", e);
+                    throw new ServiceUnavailableException("An error occurred while making the HTTP request.", e);
+                }
+                awaitRetry(retryPolicy.backoff(attempt));
+                continue;
+            } catch (RuntimeException e) {
+                concurrencyLimiter.release(startNanos, AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+                circuitBreaker.releaseProbe();
+                throw e;
+            }
+
+            if (!isRetryable(response.statusCode())) {
+                concurrencyLimiter.release(startNanos, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+                circuitBreaker.recordSuccess();
+                return decompress(response);
+            }
+
+            concurrencyLimiter.release(startNanos, AdaptiveConcurrencyLimiter.Outcome.DROPPED);
+            circuitBreaker.recordFailure();
+            discardBody(response);
+            Optional<Duration> retryAfter = parseRetryAfter(response);
+            if (attempt >= retryPolicy.maxAttempts()
+                    || retryAfter.filter(delay -> delay.compareTo(retryPolicy.maxRetryAfter()) > 0).isPresent()) {
+                throw new ServiceUnavailableException("The NBP API responded with HTTP status code " + response.statusCode());
+            }
+
+            Duration backoff = retryPolicy.backoff(attempt);
+            awaitRetry(retryAfter.filter(delay -> delay.compareTo(backoff) > 0).orElse(backoff));
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    private HttpResponse<InputStream> sendOnce(HttpRequest request, HttpEndpointMetrics endpointMetrics, String currency, String date) throws IOException {
+        NbpFetchEvent event = new NbpFetchEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = deadlinePolicy.hedging()
+                    ? sendHedged(request, endpointMetrics)
+                    : client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (!isRetryable(response.statusCode())) {
+                response = readBody(response, startNanos + request.timeout().orElse(deadlinePolicy.requestTimeout()).toNanos());
+            }
+            endpointMetrics.recordResponse(response.statusCode(), startNanos);
+            if (deadlinePolicy.hedging() && !isRetryable(response.statusCode())) {
+                hedgeLatency(endpointMetrics).record(System.nanoTime() - startNanos);
+            }
+            if (event.shouldCommit()) {
+                event.statusCode = response.statusCode();
+                event.contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+                commitFetchEvent(event, request, endpointMetrics, currency, date);
+            }
+            return response;
+        } catch (IOException e) {
+            endpointMetrics.recordFailure(startNanos);
+            if (event.shouldCommit()) {
+                event.contentLength = -1;
+                commitFetchEvent(event, request, endpointMetrics, currency, date);
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            endpointMetrics.recordFailure(startNanos);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while making the HTTP request.", e);
+        }
+    }
+
+    /**
+     * Sends the request and, if it has not answered by the endpoint's observed hedge quantile, a duplicate.
+     * The first response wins; the other exchange is cancelled, and its body closed if it already arrived.
+     * A failed exchange only fails the call once both have failed.
+     */
+    private HttpResponse<InputStream> sendHedged(HttpRequest request, HttpEndpointMetrics endpointMetrics) throws IOException, InterruptedException {
+        CompletableFuture<HttpResponse<InputStream>> primary = client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        LatencyWindow latency = hedgeLatency(endpointMetrics);
+        if (latency.getCount() < deadlinePolicy.minSamples()) {
+            return await(primary, primary);
+        }
+        try {
+            return primary.get(latency.getPercentileNanos(deadlinePolicy.hedgeQuantile()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Slower than usual, so a hedge may pay off.
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            throw e;
+        }
+
+        OptionalLong hedgePermit = tryAcquireHedge();
+        if (hedgePermit.isEmpty()) {
+            return await(primary, primary);
+        }
+        hedges.increment();
+        CompletableFuture<HttpResponse<InputStream>> hedge = client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        CompletableFuture<HttpResponse<InputStream>> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        BiConsumer<HttpResponse<InputStream>, Throwable> completeFirst = (response, error) -> {
+            if (error == null) {
+                if (!winner.complete(response)) {
+                    discardBody(response);
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        };
+        primary.whenComplete(completeFirst);
+        hedge.whenComplete(completeFirst);
+
+        try {
+            HttpResponse<InputStream> response = await(winner, primary, hedge);
+            if (hedge.isDone() && !hedge.isCompletedExceptionally() && hedge.join() == response) {
+                hedgeWins.increment();
+            }
+            return response;
+        } finally {
+            primary.cancel(true);
+            hedge.cancel(true);
+            concurrencyLimiter.release(hedgePermit.getAsLong(), AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        }
+    }
+
+    /**
+     * Reads the whole body before the request's deadline. The request timeout only covers waiting for the
+     * headers, so a body that stalls afterwards would otherwise block the parser for as long as NBP keeps the
+     * connection open. On expiry the body is closed and the read fails like a timed-out request.
+     */
+    private static HttpResponse<InputStream> readBody(HttpResponse<InputStream> response, long deadlineNanos) throws IOException, InterruptedException {
+        InputStream body = response.body();
+        if (body == null) {
+            return response;
+        }
+        CompletableFuture<byte[]> read = CompletableFuture.supplyAsync(() -> {
+            try {
+                return body.readAllBytes();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, BODY_READER);
+        try {
+            return new ReplacedBodyResponse(response, new ByteArrayInputStream(read.get(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS)));
+        } catch (TimeoutException e) {
+            discardBody(response);
+            throw new HttpTimeoutException("Timed out while reading the response body");
+        } catch (ExecutionException e) {
+            discardBody(response);
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            discardBody(response);
+            throw e;
+        }
+    }
+
+    /**
+     * Hedges are limited by the concurrency limit and by a budget that refills by maxHedgeRatio per request.
+     */
+    private synchronized OptionalLong tryAcquireHedge() {
+        if (hedgeBudget < 1) {
+            return OptionalLong.empty();
+        }
+        OptionalLong permit = concurrencyLimiter.tryAcquire();
+        if (permit.isPresent()) {
+            hedgeBudget--;
+        }
+        return permit;
+    }
+
+    private synchronized void refillHedgeBudget() {
+        hedgeBudget = Math.min(MAX_HEDGE_BURST, hedgeBudget + deadlinePolicy.maxHedgeRatio());
+    }
+
+    private LatencyWindow hedgeLatency(HttpEndpointMetrics endpointMetrics) {
+        return hedgeLatencies.computeIfAbsent(endpointMetrics.getName(), name -> new LatencyWindow(HEDGE_LATENCY_WINDOW));
+    }
+
+    @SafeVarargs
+    private static HttpResponse<InputStream> await(CompletableFuture<HttpResponse<InputStream>> result,
+                                                   CompletableFuture<HttpResponse<InputStream>>... exchanges) throws IOException, InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            for (CompletableFuture<HttpResponse<InputStream>> exchange : exchanges) {
+                exchange.cancel(true);
+            }
+            throw e;
+        }
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof IOException ioException) {
+            return ioException;
+        }
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        return new IOException(e.getCause());
+    }
+
+    private long acquirePermit() {
+        try {
+            return concurrencyLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to make the HTTP request.", e);
+        }
+    }
+
+    private void awaitRetry(Duration delay) {
+        retries.increment();
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to retry the HTTP request.", e);
+        }
+    }
+
+    /**
+     * Asks for gzip and sets the request timeout, unless the caller already chose them.
+     */
+    private HttpRequest prepare(HttpRequest request) {
+        boolean hasEncoding = request.headers().firstValue("Accept-Encoding").isPresent();
+        if (hasEncoding && request.timeout().isPresent()) {
+            return request;
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+        if (!hasEncoding) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        if (request.timeout().isEmpty()) {
+            builder.timeout(deadlinePolicy.requestTimeout());
+        }
+        return builder.build();
+    }
+
+    private static HttpResponse<InputStream> decompress(HttpResponse<InputStream> response) {
+        boolean gzipped = response.headers() != null
+                && response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent();
+        return gzipped ? new ReplacedBodyResponse(response, new GzipBodyInputStream(response.body())) : response;
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode == 429 || statusCode == 500 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    /**
+     * Reads Retry-After in either of its forms: a number of seconds or an HTTP date.
+     */
+    private Optional<Duration> parseRetryAfter(HttpResponse<InputStream> response) {
+        if (response.headers() == null) {
+            return Optional.empty();
+        }
+        return response.headers().firstValue("Retry-After").flatMap(value -> {
+            try {
+                return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim()))));
+            } catch (NumberFormatException e) {
+                try {
+                    Duration delay = Duration.between(clock.instant(), ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+                    return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+                } catch (DateTimeParseException ignored) {
+                    return Optional.empty();
+                }
+            }
+        });
+    }
+
+    private static void commitFetchEvent(NbpFetchEvent event, HttpRequest request, HttpEndpointMetrics endpointMetrics, String currency, String date) {
+        event.endpoint = endpointMetrics.getName();
+        event.uri = request.uri().toString();
+        event.currency = currency;
+        event.date = date;
+        event.commit();
+    }
+
+    private static void discardBody(HttpResponse<InputStream> response) {
+        InputStream body = response.body();
+        if (body == null) {
+            return;
+        }
+        try (InputStream ignored = body) {
+            // Closing the unread body releases the connection back to the pool.
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to close the HTTP response body.", e);
+        }
+    }
+
+    private record SharedControls(CircuitBreaker circuitBreaker, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+    }
+
+    /**
+     * The response with its body replaced by the buffered or the decompressed one.
+     */
+    private record ReplacedBodyResponse(HttpResponse<InputStream> response, InputStream body) implements HttpResponse<InputStream> {
+        @Override
+        public int statusCode() {
+            return response.statusCode();
+        }
+
+        @Override
+        public HttpRequest request() {
+            return response.request();
+        }
+
+        @Override
+        public Optional<HttpResponse<InputStream>> previousResponse() {
+            return response.previousResponse();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return response.headers();
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return response.sslSession();
+        }
+
+        @Override
+        public URI uri() {
+            return response.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return response.version();
+        }
+    }
+
+    /**
+     * Inflates the body as it is read. The gzip header is only read on first use, so a broken body fails while
+     * parsing, like any other body read error, instead of inside send.
+     */
+    private static final class GzipBodyInputStream extends InputStream {
+        private final InputStream compressed;
+        private InputStream decompressed;
+
+        private GzipBodyInputStream(InputStream compressed) {
+            this.compressed = compressed;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return decompressed().read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return decompressed().read(buffer, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (decompressed != null) {
+                decompressed.close();
+            } else {
+                compressed.close();
+            }
+        }
+
+        private InputStream decompressed() throws IOException {
+            if (decompressed == null) {
+                decompressed = new GZIPInputStream(compressed, GZIP_BUFFER_SIZE);
+            }
+            return decompressed;
+        }
+    }
+}
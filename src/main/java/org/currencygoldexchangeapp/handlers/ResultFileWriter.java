@@ -0,0 +1,320 @@
+package org.currencygoldexchangeapp.handlers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.DecimalFormatSymbols;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Appends query results to the daily result file of one directory on a dedicated writer thread. Rows are
+ * grouped into one write per batch; a batch is closed when it reaches the row limit or when the oldest row
+ * has waited for the maximum delay. The file channel stays open until the date of the queued rows changes.
+ */
+public class ResultFileWriter implements AutoCloseable {
+    public static final int DEFAULT_MAX_BATCH_ROWS = 512;
+    public static final Duration DEFAULT_MAX_BATCH_DELAY = Duration.ofMillis(2);
+
+    static final String CSV_HEADER = "SourceCurrency,Amount,TargetCurrency,Date,Bid,Ask";
+
+    private static final Logger LOGGER = Logger.getLogger(ResultFileWriter.class.getName());
+    private static final DateTimeFormatter FILE_NAME_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final PendingRow POISON_PILL = new PendingRow(null, null, null);
+
+    public enum DurabilityMode {
+        /** Futures complete once the batch has been written to the operating system. */
+        BUFFERED,
+        /** Futures complete once the batch has been forced to the storage device. */
+        SYNC
+    }
+
+    private final Path directory;
+    private final DurabilityMode durabilityMode;
+    private final int maxBatchRows;
+    private final long maxBatchDelayNanos;
+    private final Clock clock;
+    private final BlockingQueue<PendingRow> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private final char decimalSeparator = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)).getDecimalSeparator();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong writtenRowCount = new AtomicLong();
+    private volatile boolean closed;
+
+    // Owned by the writer thread.
+    private FileChannel channel;
+    private LocalDate channelDate;
+    private Set<String> savedRowKeys;
+    private long expectedFileSize;
+
+    public ResultFileWriter(Path directory) {
+        this(directory, DurabilityMode.BUFFERED, DEFAULT_MAX_BATCH_ROWS, DEFAULT_MAX_BATCH_DELAY, Clock.systemDefaultZone());
+    }
+
+    public ResultFileWriter(Path directory, DurabilityMode durabilityMode, int maxBatchRows, Duration maxBatchDelay, Clock clock) {
+        if (maxBatchRows <= 0 || maxBatchDelay.isNegative()) {
+            throw new IllegalArgumentException("Batch size must be positive and batch delay must not be negative");
+        }
+        this.directory = directory;
+        this.durabilityMode = durabilityMode;
+        this.maxBatchRows = maxBatchRows;
+        this.maxBatchDelayNanos = maxBatchDelay.toNanos();
+        this.clock = clock;
+        this.writerThread = Thread.ofPlatform()
+                .name("result-file-writer-" + directory.getFileName())
+                .daemon(true)
+                .start(this::runWriterLoop);
+    }
+
+    /**
+     * Queues a row for the file of the current day. The future completes with false when the file already
+     * contains the same row, and with true once the row is durable according to the durability mode.
+     */
+    public CompletableFuture<Boolean> submit(String sourceCurrencyCode, double amount, String targetCurrencyCode, LocalDate date, double bid, double ask) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        if (closed) {
+            result.completeExceptionally(new IllegalStateException("Result file writer is closed"));
+            return result;
+        }
+
+        ResultRow row = new ResultRow(sourceCurrencyCode, amount, targetCurrencyCode, date, bid, ask);
+        queue.add(new PendingRow(row, LocalDate.now(clock), result));
+        return result;
+    }
+
+    public Path getFilePath(LocalDate fileDate) {
+        return directory.resolve("resultQueryToAPI_" + fileDate.format(FILE_NAME_DATE_FORMATTER) + ".csv");
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getWrittenRowCount() {
+        return writtenRowCount.get();
+    }
+
+    /**
+     * Stops accepting rows, writes the ones already queued and closes the file.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(POISON_PILL);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriterLoop() {
+        List<PendingRow> batch = new ArrayList<>(maxBatchRows);
+        boolean running = true;
+
+        while (running) {
+            try {
+                PendingRow first = queue.take();
+                if (first == POISON_PILL) {
+                    break;
+                }
+                batch.add(first);
+                running = collectBatch(batch);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        failPendingRows();
+        closeChannel();
+    }
+
+    private boolean collectBatch(List<PendingRow> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxBatchDelayNanos;
+
+        while (batch.size() < maxBatchRows) {
+            PendingRow next = queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return true;
+                }
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return true;
+                }
+            }
+            if (next == POISON_PILL) {
+                queue.drainTo(batch);
+                return false;
+            }
+            batch.add(next);
+        }
+        return true;
+    }
+
+    private void writeBatch(List<PendingRow> batch) {
+        int start = 0;
+        while (start < batch.size()) {
+            // Rows queued before midnight still belong to the previous day's file.
+            LocalDate fileDate = batch.get(start).fileDate();
+            int end = start;
+            while (end < batch.size() && batch.get(end).fileDate().equals(fileDate)) {
+                end++;
+            }
+            writeRowsToFile(fileDate, batch.subList(start, end));
+            start = end;
+        }
+    }
+
+    private void writeRowsToFile(LocalDate fileDate, List<PendingRow> rows) {
+        List<PendingRow> appendedRows = new ArrayList<>(rows.size());
+        try {
+            openChannel(fileDate);
+
+            StringBuilder content = new StringBuilder(rows.size() * 48 + CSV_HEADER.length() + 1);
+            if (expectedFileSize == 0) {
+                content.append(CSV_HEADER).append('\n');
+            }
+
+            for (PendingRow pendingRow : rows) {
+                int lineStart = content.length();
+                appendCsvLine(content, pendingRow.row());
+                String rowKey = toRowKey(content.substring(lineStart));
+                if (savedRowKeys.add(rowKey)) {
+                    appendedRows.add(pendingRow);
+                } else {
+                    content.setLength(lineStart);
+                    pendingRow.result().complete(false);
+                }
+            }
+
+            if (!appendedRows.isEmpty()) {
+                ByteBuffer buffer = StandardCharsets.UTF_8.encode(content.toString());
+                while (buffer.hasRemaining()) {
+                    expectedFileSize += channel.write(buffer);
+                }
+                if (durabilityMode == DurabilityMode.SYNC) {
+                    channel.force(false);
+                }
+            }
+
+            batchCount.incrementAndGet();
+            writtenRowCount.addAndGet(appendedRows.size());
+            appendedRows.forEach(pendingRow -> pendingRow.result().complete(true));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to write results to " + getFilePath(fileDate), e);
+            // The file position is unknown after a failed write, so it is reopened and indexed again.
+            closeChannel();
+            UncheckedIOException failure = new UncheckedIOException(e);
+            rows.forEach(pendingRow -> pendingRow.result().completeExceptionally(failure));
+        }
+    }
+
+    private void openChannel(LocalDate fileDate) throws IOException {
+        Path filePath = getFilePath(fileDate);
+        // A file changed outside the writer is indexed again before anything is appended to it.
+        if (channel != null && fileDate.equals(channelDate) && Files.exists(filePath) && Files.size(filePath) == expectedFileSize) {
+            return;
+        }
+
+        closeChannel();
+        Files.createDirectories(directory);
+        savedRowKeys = loadRowKeys(filePath);
+        channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        channelDate = fileDate;
+        expectedFileSize = channel.size();
+    }
+
+    private Set<String> loadRowKeys(Path filePath) throws IOException {
+        Set<String> rowKeys = new HashSet<>();
+        if (!Files.exists(filePath)) {
+            return rowKeys;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rowKeys.add(toRowKey(line));
+            }
+        }
+        return rowKeys;
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to close the result file.", e);
+        }
+        channel = null;
+        channelDate = null;
+        savedRowKeys = null;
+    }
+
+    private void failPendingRows() {
+        List<PendingRow> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        IllegalStateException failure = new IllegalStateException("Result file writer is closed");
+        remaining.stream()
+                .filter(pendingRow -> pendingRow != POISON_PILL)
+                .forEach(pendingRow -> pendingRow.result().completeExceptionally(failure));
+    }
+
+    // Produces the same text as "%s,%.2f,%s,%s,%.4f,%.4f\n" without parsing a format string for every row.
+    private void appendCsvLine(StringBuilder content, ResultRow row) {
+        content.append(row.sourceCurrencyCode()).append(',');
+        appendDecimal(content, row.amount(), 2);
+        content.append(',').append(row.targetCurrencyCode()).append(',').append(row.date()).append(',');
+        appendDecimal(content, row.bid(), 4);
+        content.append(',');
+        appendDecimal(content, row.ask(), 4);
+        content.append('\n');
+    }
+
+    private void appendDecimal(StringBuilder content, double value, int scale) {
+        String digits = BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP).toPlainString();
+        content.append(decimalSeparator == '.' ? digits : digits.replace('.', decimalSeparator));
+    }
+
+    private static String toRowKey(String line) {
+        return line.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record ResultRow(String sourceCurrencyCode, double amount, String targetCurrencyCode, LocalDate date, double bid, double ask) {
+    }
+
+    private record PendingRow(ResultRow row, LocalDate fileDate, CompletableFuture<Boolean> result) {
+    }
+}
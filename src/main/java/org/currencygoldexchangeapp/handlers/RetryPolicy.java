@@ -0,0 +1,33 @@
+package org.currencygoldexchangeapp.handlers;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How often and how long to wait before repeating a failed NBP request. Delays use exponential backoff with
+ * full jitter, so clients that failed together do not retry together.
+ *
+ * @param maxAttempts   attempts including the first one
+ * @param maxRetryAfter longest Retry-After the caller is willing to wait; a longer one fails the request
+ */
+public record RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay, Duration maxRetryAfter) {
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, Duration.ofMillis(100), Duration.ofSeconds(2), Duration.ofSeconds(10));
+    public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+
+    public RetryPolicy {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("At least one attempt is required");
+        }
+    }
+
+    /**
+     * A random delay between zero and the exponential backoff for the given retry (1 for the first retry).
+     */
+    public Duration backoff(int retry) {
+        long ceilingNanos = baseDelay.toNanos() << Math.min(retry - 1, 30);
+        if (ceilingNanos <= 0 || ceilingNanos > maxDelay.toNanos()) {
+            ceilingNanos = maxDelay.toNanos();
+        }
+        return ceilingNanos == 0 ? Duration.ZERO : Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceilingNanos + 1));
+    }
+}
@@ -0,0 +1,40 @@
+package org.currencygoldexchangeapp.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fetch and compute time and NBP table fetches of one unit of work, such as a file run. It is passed along with
+ * the conversions of that unit of work, so unlike the shared registry it does not see other traffic in the process.
+ */
+public class ConversionStatistics {
+    private final LongAdder fetchNanos = new LongAdder();
+    private final LongAdder computeNanos = new LongAdder();
+    private final LongAdder tableFetches = new LongAdder();
+
+    public void recordFetchTime(long nanos) {
+        fetchNanos.add(nanos);
+    }
+
+    public void recordComputeTime(long nanos) {
+        computeNanos.add(nanos);
+    }
+
+    /**
+     * Records a table request sent to NBP for this unit of work. Retries of the request are not counted again.
+     */
+    public void recordTableFetch() {
+        tableFetches.increment();
+    }
+
+    public long getFetchNanos() {
+        return fetchNanos.sum();
+    }
+
+    public long getComputeNanos() {
+        return computeNanos.sum();
+    }
+
+    public long getTableFetches() {
+        return tableFetches.sum();
+    }
+}
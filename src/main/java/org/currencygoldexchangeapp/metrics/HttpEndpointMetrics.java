@@ -0,0 +1,67 @@
+package org.currencygoldexchangeapp.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request count, status codes and latency of one NBP API endpoint. Latency is measured until the response
+ * headers arrive; reading the body is part of the JSON decode time.
+ */
+public class HttpEndpointMetrics {
+    private final MetricsRegistry registry;
+    private final String name;
+    private final LongAdder requests;
+    private final LongAdder failures;
+    private final LatencyHistogram latency;
+    private final Map<Integer, LongAdder> statusCounters = new ConcurrentHashMap<>();
+
+    HttpEndpointMetrics(MetricsRegistry registry, String name) {
+        this.registry = registry;
+        this.name = name;
+        this.requests = registry.counter(name + ".requests");
+        this.failures = registry.counter(name + ".failures");
+        this.latency = registry.histogram(name + ".latency");
+    }
+
+    public void recordResponse(int statusCode, long startNanos) {
+        latency.recordSince(startNanos);
+        requests.increment();
+
+        LongAdder statusCounter = statusCounters.get(statusCode);
+        if (statusCounter == null) {
+            statusCounter = statusCounters.computeIfAbsent(statusCode, code -> registry.counter(name + ".status." + code));
+        }
+        statusCounter.increment();
+    }
+
+    /**
+     * Records a request that got no response at all, e.g. because the connection failed.
+     */
+    public void recordFailure(long startNanos) {
+        latency.recordSince(startNanos);
+        requests.increment();
+        failures.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    public long getStatusCount(int statusCode) {
+        LongAdder statusCounter = statusCounters.get(statusCode);
+        return statusCounter == null ? 0 : statusCounter.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,50 @@
+package org.currencygoldexchangeapp.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of the most recent calls, kept in a ring buffer of fixed size. Unlike {@link LatencyHistogram}, it
+ * forgets old samples, so its percentiles follow the current behaviour of the server. It is not part of the
+ * registry, so a metrics reset does not clear it.
+ */
+public class LatencyWindow {
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    public LatencyWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Window capacity must be a positive number");
+        }
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = Math.max(nanos, 0);
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+    }
+
+    public synchronized int getCount() {
+        return size;
+    }
+
+    /**
+     * The given quantile (0..1) of the samples in the window, or 0 when it is empty.
+     */
+    public long getPercentileNanos(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+        }
+
+        long[] snapshot;
+        synchronized (this) {
+            snapshot = Arrays.copyOf(samples, size);
+        }
+        if (snapshot.length == 0) {
+            return 0;
+        }
+        Arrays.sort(snapshot);
+        return snapshot[Math.max(1, (int) Math.ceil(quantile * snapshot.length)) - 1];
+    }
+}
@@ -0,0 +1,95 @@
+package org.currencygoldexchangeapp.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Named counters, gauges and latency histograms. Components look their metrics up once and keep the references, so
+ * the hot path only touches striped counters. {@link #registerMBean()} exposes a snapshot over JMX.
+ */
+public class MetricsRegistry {
+    public static final String OBJECT_NAME = "org.currencygoldexchangeapp:type=Metrics";
+
+    private static final Logger LOGGER = Logger.getLogger(MetricsRegistry.class.getName());
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, HttpEndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private boolean registered;
+
+    public static MetricsRegistry getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Reports the supplier's current value under the given name, replacing any gauge registered before.
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    public HttpEndpointMetrics endpoint(String name) {
+        return endpoints.computeIfAbsent(name, key -> new HttpEndpointMetrics(this, key));
+    }
+
+    /**
+     * Current values by attribute name: counters and gauges as they are, and for every histogram its count and its mean,
+     * p50, p90, p99 and max in milliseconds.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        histograms.forEach((name, histogram) -> {
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".meanMillis", histogram.getMeanNanos() / 1e6);
+            values.put(name + ".p50Millis", histogram.getPercentileNanos(0.50) / 1e6);
+            values.put(name + ".p90Millis", histogram.getPercentileNanos(0.90) / 1e6);
+            values.put(name + ".p99Millis", histogram.getPercentileNanos(0.99) / 1e6);
+            values.put(name + ".maxMillis", histogram.getMaxNanos() / 1e6);
+        });
+        return values;
+    }
+
+    public void reset() {
+        counters.values().forEach(LongAdder::reset);
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server under {@link #OBJECT_NAME}. Kept out of the
+     * constructor so that short command-line runs do not pay for starting JMX.
+     */
+    public synchronized void registerMBean() {
+        if (registered) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(this), new ObjectName(OBJECT_NAME));
+            registered = true;
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Failed to register the metrics MBean.", e);
+        }
+    }
+
+    private static final class DefaultHolder {
+        private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    }
+}
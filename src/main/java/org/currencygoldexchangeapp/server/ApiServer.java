@@ -0,0 +1,235 @@
+package org.currencygoldexchangeapp.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.datamodels.GoldValue;
+import org.currencygoldexchangeapp.exceptions.CurrencyNotFoundException;
+import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+import org.currencygoldexchangeapp.exceptions.ExceededResultsLimitException;
+import org.currencygoldexchangeapp.exceptions.ServiceUnavailableException;
+import org.currencygoldexchangeapp.handlers.GoldValueAPIHandler;
+import org.currencygoldexchangeapp.services.CurrencyExchangeCalculateService;
+import org.currencygoldexchangeapp.services.GoldValueCalculateService;
+import org.currencygoldexchangeapp.utils.JSONMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves conversions and gold price lookups as JSON over the JDK's built-in HTTP server. Every request runs
+ * on its own virtual thread, so requests blocked on the NBP API do not hold up the others.
+ * Launch the JVM with {@code -Dsun.net.httpserver.nodelay=true}: headers and body are written separately, and
+ * without TCP_NODELAY the body waits ~40ms for the client's delayed ACK.
+ *
+ * Endpoints (all GET):
+ *   /api/exchange?source=USD&amount=100[&target=EUR][&date=yyyy-MM-dd]
+ *   /api/gold[?date=yyyy-MM-dd]
+ *   /api/gold/gain-or-loss?start=yyyy-MM-dd[&end=yyyy-MM-dd]
+ *   /health
+ */
+public class ApiServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final Logger LOGGER = Logger.getLogger(ApiServer.class.getName());
+    private static final int BACKLOG = 256;
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private final CurrencyExchangeCalculateService currencyExchangeCalculateService;
+    private final GoldValueAPIHandler goldValueAPIHandler;
+    private final GoldValueCalculateService goldValueCalculateService;
+    private final JSONMapper jsonMapper = new JSONMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final HttpServer server;
+
+    public ApiServer(InetSocketAddress address, CurrencyExchangeCalculateService currencyExchangeCalculateService,
+                     GoldValueAPIHandler goldValueAPIHandler, GoldValueCalculateService goldValueCalculateService) throws IOException {
+        this.currencyExchangeCalculateService = currencyExchangeCalculateService;
+        this.goldValueAPIHandler = goldValueAPIHandler;
+        this.goldValueCalculateService = goldValueCalculateService;
+
+        this.server = HttpServer.create(address, BACKLOG);
+        this.server.setExecutor(executor);
+        this.server.createContext("/api/exchange", exchange -> handle(exchange, "/api/exchange", this::exchangeAmount));
+        this.server.createContext("/api/gold", exchange -> handle(exchange, "/api/gold", this::goldValue));
+        this.server.createContext("/api/gold/gain-or-loss", exchange -> handle(exchange, "/api/gold/gain-or-loss", this::goldGainOrLoss));
+        this.server.createContext("/health", exchange -> handle(exchange, "/health", parameters -> Map.of("status", "UP")));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * The bound port, which differs from the requested one when the server was created on port 0.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (stopped.getCount() == 0) {
+            return;
+        }
+        server.stop(0);
+        executor.close();
+        stopped.countDown();
+    }
+
+    private Map<String, Object> exchangeAmount(Map<String, String> parameters) {
+        String sourceCurrency = requireParameter(parameters, "source").toUpperCase();
+        String amountAsString = requireParameter(parameters, "amount");
+        String targetCurrency = parameters.getOrDefault("target", "PLN").toUpperCase();
+        String date = parseDate(parameters.getOrDefault("date", LocalDate.now().toString()));
+
+        double amount;
+        try {
+            amount = Double.parseDouble(amountAsString);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amountAsString);
+        }
+
+        CurrencyExchange result = currencyExchangeCalculateService.calculateExchangeAmount(sourceCurrency, amount, targetCurrency, date);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("source", sourceCurrency);
+        response.put("amount", amount);
+        response.put("target", targetCurrency);
+        response.put("date", date);
+        response.put("ask", result.getAsk());
+        response.put("bid", result.getBid());
+        return response;
+    }
+
+    private Map<String, Object> goldValue(Map<String, String> parameters) {
+        String date = parseDate(parameters.getOrDefault("date", LocalDate.now().toString()));
+        GoldValue goldValue = goldValueAPIHandler.getGoldValueForSpecificDate(date);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("date", goldValue.getEffectiveDate());
+        response.put("price", goldValue.getValue());
+        return response;
+    }
+
+    private Map<String, Object> goldGainOrLoss(Map<String, String> parameters) {
+        String startDate = parseDate(requireParameter(parameters, "start"));
+        String endDate = parseDate(parameters.getOrDefault("end", LocalDate.now().toString()));
+        if (startDate.compareTo(endDate) > 0) {
+            throw new IllegalArgumentException("The start date must not be after the end date");
+        }
+
+        Optional<BigDecimal> gainOrLoss = goldValueCalculateService.calculateGainOrLoss(startDate, endDate);
+        if (gainOrLoss.isEmpty()) {
+            throw new DataNotFoundException();
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("start", startDate);
+        response.put("end", endDate);
+        response.put("gainOrLoss", gainOrLoss.get());
+        return response;
+    }
+
+    private void handle(HttpExchange exchange, String path, Function<Map<String, String>, Map<String, ?>> endpoint) throws IOException {
+        try (exchange) {
+            // Contexts match by prefix, so "/api/goldx" would otherwise be routed to "/api/gold".
+            if (!path.equals(exchange.getRequestURI().getPath())) {
+                sendError(exchange, HttpURLConnection.HTTP_NOT_FOUND, "Unknown endpoint: " + exchange.getRequestURI().getPath());
+                return;
+            }
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendError(exchange, HttpURLConnection.HTTP_BAD_METHOD, "Only GET is supported");
+                return;
+            }
+
+            Map<String, ?> response;
+            try {
+                response = endpoint.apply(parseQuery(exchange.getRequestURI().getRawQuery()));
+            } catch (IllegalArgumentException | ExceededResultsLimitException e) {
+                sendError(exchange, HttpURLConnection.HTTP_BAD_REQUEST, e.getMessage());
+                return;
+            } catch (DataNotFoundException | CurrencyNotFoundException e) {
+                sendError(exchange, HttpURLConnection.HTTP_NOT_FOUND, e.getMessage());
+                return;
+            } catch (ServiceUnavailableException e) {
+                sendError(exchange, HttpURLConnection.HTTP_UNAVAILABLE, e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Request failed: " + exchange.getRequestURI(), e);
+                sendError(exchange, HttpURLConnection.HTTP_BAD_GATEWAY, e.getMessage());
+                return;
+            }
+
+            send(exchange, HttpURLConnection.HTTP_OK, jsonMapper.serializeFieldsToJson(response));
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int statusCode, String message) throws IOException {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        send(exchange, statusCode, jsonMapper.serializeFieldsToJson(error));
+    }
+
+    private static void send(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        exchange.sendResponseHeaders(statusCode, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static String requireParameter(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing query parameter: " + name);
+        }
+        return value;
+    }
+
+    private static String parseDate(String date) {
+        try {
+            return LocalDate.parse(date).toString();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd: " + date);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package org.currencygoldexchangeapp.services;
+
+import org.currencygoldexchangeapp.datamodels.ConversionResult;
+import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.exceptions.CurrencyNotFoundException;
+import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+import org.currencygoldexchangeapp.exceptions.ServiceUnavailableException;
+import org.currencygoldexchangeapp.handlers.ExchangeRateAPIHandler;
+import org.currencygoldexchangeapp.handlers.ExchangeRateFileReaderHandler;
+import org.currencygoldexchangeapp.handlers.GoldValueAPIHandler;
+import org.currencygoldexchangeapp.handlers.NbpHttpClientSettings;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
+import org.currencygoldexchangeapp.server.ApiServer;
+import org.currencygoldexchangeapp.utils.Lazy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs single operations from command-line arguments, without the interactive menu.
+ */
+public class CommandLineService {
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = """
+            Usage:
+              convert <SOURCE> <AMOUNT> [TARGET] [yyyy-MM-dd]   convert an amount (target defaults to PLN, date to today)
+              convert-file <PATH> [--concurrency N] [--profile]
+                                                              convert every line of a CSV file; --profile reports where the time went
+              compare-gold                                    compare today's gold price with the best price this month/year
+              stream [--concurrency N]                        convert lines read from stdin, printing results as they complete
+              serve [--port N]                                serve the conversions and gold lookups as a JSON HTTP API
+            Input lines of convert-file and stream use the file format: <SOURCE> <AMOUNT> <TARGET> <dd-MM-yy>""";
+
+    // Only the components needed by the requested command are created; "help" does not even build the HTTP client.
+    private final Supplier<CurrencyExchangeCalculateService> currencyExchangeCalculateService;
+    private final Supplier<ExchangeRateFileReaderHandler> exchangeRateFileReaderHandler;
+    private final Supplier<GoldValueAPIHandler> goldValueAPIHandler;
+    private final Supplier<GoldValueCalculateService> goldValueCalculateService;
+
+    public CommandLineService() {
+        Lazy<HttpClient> httpClient = Lazy.of(NbpHttpClientSettings::newConfiguredClient);
+        this.currencyExchangeCalculateService = Lazy.of(() -> new CurrencyExchangeCalculateService(
+                Lazy.of(() -> new ExchangeRateAPIHandler(httpClient.get()))));
+        this.exchangeRateFileReaderHandler = Lazy.of(() -> new ExchangeRateFileReaderHandler(currencyExchangeCalculateService.get()));
+        this.goldValueAPIHandler = Lazy.of(() -> new GoldValueAPIHandler(httpClient.get()));
+        this.goldValueCalculateService = Lazy.of(() -> new GoldValueCalculateService(goldValueAPIHandler.get()));
+    }
+
+    public CommandLineService(CurrencyExchangeCalculateService currencyExchangeCalculateService, ExchangeRateFileReaderHandler exchangeRateFileReaderHandler,
+                              GoldValueAPIHandler goldValueAPIHandler, GoldValueCalculateService goldValueCalculateService) {
+        this.currencyExchangeCalculateService = () -> currencyExchangeCalculateService;
+        this.exchangeRateFileReaderHandler = () -> exchangeRateFileReaderHandler;
+        this.goldValueAPIHandler = () -> goldValueAPIHandler;
+        this.goldValueCalculateService = () -> goldValueCalculateService;
+    }
+
+    public int run(String[] args, InputStream in, PrintStream out, PrintStream err) {
+        if (args.length == 0) {
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            return switch (args[0]) {
+                case "convert" -> convert(args, out, err);
+                case "convert-file" -> convertFile(args, out, err);
+                case "compare-gold" -> compareGold(out, err);
+                case "stream" -> stream(args, in, out, err);
+                case "serve" -> serve(args, out, err);
+                case "help", "--help", "-h" -> {
+                    out.println(USAGE);
+                    yield EXIT_OK;
+                }
+                default -> {
+                    err.println("Unknown command: " + args[0]);
+                    err.println(USAGE);
+                    yield EXIT_USAGE;
+                }
+            };
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+    }
+
+    private int convert(String[] args, PrintStream out, PrintStream err) {
+        if (args.length < 3 || args.length > 5) {
+            throw new IllegalArgumentException("convert expects a source currency, an amount, and optionally a target currency and a date");
+        }
+
+        String sourceCurrency = args[1].toUpperCase();
+        double amount = parseAmount(args[2]);
+        String targetCurrency = args.length > 3 ? args[3].toUpperCase() : "PLN";
+        String date = args.length > 4 ? parseDate(args[4]).toString() : LocalDate.now().toString();
+
+        try {
+            CurrencyExchange result = currencyExchangeCalculateService.get().calculateExchangeAmount(sourceCurrency, amount, targetCurrency, date);
+            out.println(sourceCurrency + " " + args[2] + " " + targetCurrency + " " + date + " " + result.getAsk());
+            return EXIT_OK;
+        } catch (DataNotFoundException | CurrencyNotFoundException | ServiceUnavailableException e) {
+            err.println(e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+
+    private int convertFile(String[] args, PrintStream out, PrintStream err) {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("convert-file expects a file path, an optional --concurrency N and an optional --profile");
+        }
+        boolean profile = false;
+        int concurrency = ExchangeRateFileReaderHandler.DEFAULT_MAX_CONCURRENCY;
+        for (int i = 2; i < args.length; i++) {
+            if ("--profile".equals(args[i])) {
+                profile = true;
+            } else if (i + 1 < args.length) {
+                concurrency = parsePositiveOption(args, i, "--concurrency", concurrency);
+                i++;
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        ExchangeRateFileReaderHandler fileReaderHandler = exchangeRateFileReaderHandler.get();
+        try {
+            Map<String, Double> exchangeRates = fileReaderHandler.readExchangeRatesInParallel(args[1], concurrency);
+            long outputStartNanos = System.nanoTime();
+            exchangeRates.forEach((key, value) -> out.println(key + ": " + value));
+            fileReaderHandler.getErrorMessages().forEach(err::println);
+
+            if (profile) {
+                long outputNanos = System.nanoTime() - outputStartNanos;
+                // The report goes to stderr so that stdout stays parseable.
+                fileReaderHandler.getLastRunReport().ifPresent(report -> err.println(report.withOutputNanos(outputNanos).format()));
+            }
+            return fileReaderHandler.getErrorMessages().isEmpty() ? EXIT_OK : EXIT_FAILED;
+        } catch (IOException e) {
+            err.println(e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+
+    private int compareGold(PrintStream out, PrintStream err) {
+        LocalDate today = LocalDate.now();
+        Optional<BigDecimal> gainOrLossMonthly;
+        Optional<BigDecimal> gainOrLossYearly;
+        try {
+            gainOrLossMonthly = goldValueCalculateService.get().calculateGainOrLoss(today.withDayOfMonth(1).toString(), today.toString());
+            gainOrLossYearly = goldValueCalculateService.get().calculateGainOrLoss(today.minusYears(1).toString(), today.toString());
+        } catch (ServiceUnavailableException e) {
+            err.println(e.getMessage());
+            return EXIT_FAILED;
+        }
+
+        out.println("month " + gainOrLossMonthly.map(BigDecimal::toPlainString).orElse("n/a"));
+        out.println("year " + gainOrLossYearly.map(BigDecimal::toPlainString).orElse("n/a"));
+        return gainOrLossMonthly.isPresent() || gainOrLossYearly.isPresent() ? EXIT_OK : EXIT_FAILED;
+    }
+
+    private int stream(String[] args, InputStream in, PrintStream out, PrintStream err) {
+        if (args.length != 1 && args.length != 3) {
+            throw new IllegalArgumentException("stream expects an optional --concurrency N");
+        }
+        int concurrency = parseConcurrency(args, 1);
+        ExchangeRateFileReaderHandler fileReaderHandler = exchangeRateFileReaderHandler.get();
+        Semaphore permits = new Semaphore(concurrency);
+        AtomicBoolean failed = new AtomicBoolean();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                // Waiting for a permit before reading on keeps memory bounded when stdin is faster than the API.
+                permits.acquire();
+                String inputLine = line;
+                executor.execute(() -> {
+                    try {
+                        ConversionResult result = fileReaderHandler.convertLine(inputLine);
+                        if (result.isProcessed()) {
+                            out.println(inputLine + " " + result.exchangeRate());
+                        } else {
+                            failed.set(true);
+                            err.println(result.errorReason() + ": " + inputLine);
+                        }
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        err.println(e.getMessage() + ": " + inputLine);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } catch (IOException e) {
+            err.println("Failed to read from standard input: " + e.getMessage());
+            return EXIT_FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EXIT_FAILED;
+        }
+
+        return failed.get() ? EXIT_FAILED : EXIT_OK;
+    }
+
+    private int serve(String[] args, PrintStream out, PrintStream err) {
+        if (args.length != 1 && args.length != 3) {
+            throw new IllegalArgumentException("serve expects an optional --port N");
+        }
+        int port = parsePositiveOption(args, 1, "--port", ApiServer.DEFAULT_PORT);
+
+        try (ApiServer server = new ApiServer(new InetSocketAddress(port), currencyExchangeCalculateService.get(), goldValueAPIHandler.get(),
+                goldValueCalculateService.get())) {
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            MetricsRegistry.getDefault().registerMBean();
+            server.start();
+            out.println("Listening on http://localhost:" + server.getPort());
+            server.awaitStop();
+            return EXIT_OK;
+        } catch (IOException e) {
+            err.println("Failed to start the server: " + e.getMessage());
+            return EXIT_FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EXIT_FAILED;
+        }
+    }
+
+    private static double parseAmount(String amount) {
+        try {
+            double parsedAmount = Double.parseDouble(amount);
+            if (parsedAmount <= 0) {
+                throw new IllegalArgumentException("Amount must be a positive number: " + amount);
+            }
+            return parsedAmount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd: " + date);
+        }
+    }
+
+    private static int parseConcurrency(String[] args, int optionIndex) {
+        return parsePositiveOption(args, optionIndex, "--concurrency", ExchangeRateFileReaderHandler.DEFAULT_MAX_CONCURRENCY);
+    }
+
+    private static int parsePositiveOption(String[] args, int optionIndex, String option, int defaultValue) {
+        if (args.length <= optionIndex) {
+            return defaultValue;
+        }
+        if (!option.equals(args[optionIndex])) {
+            throw new IllegalArgumentException("Unknown option: " + args[optionIndex]);
+        }
+        try {
+            int value = Integer.parseInt(args[optionIndex + 1]);
+            if (value <= 0) {
+                throw new IllegalArgumentException(option.substring(2) + " must be a positive number");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + option.substring(2) + ": " + args[optionIndex + 1]);
+        }
+    }
+}
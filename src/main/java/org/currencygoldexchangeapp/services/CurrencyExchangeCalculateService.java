@@ -1,19 +1,42 @@
 package org.currencygoldexchangeapp.services;
 
 import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.datamodels.ExchangeRateTable;
 import org.currencygoldexchangeapp.handlers.ExchangeRateAPIHandler;
+import org.currencygoldexchangeapp.metrics.ConversionStatistics;
+import org.currencygoldexchangeapp.metrics.LatencyHistogram;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.function.Supplier;
 
 public class CurrencyExchangeCalculateService {
-    private final ExchangeRateAPIHandler exchangeRateAPIHandler;
+    private final Supplier<ExchangeRateAPIHandler> exchangeRateAPIHandler;
+    private final LatencyHistogram fetchTime = MetricsRegistry.getDefault().histogram("exchange.fetch");
+    private final LatencyHistogram computeTime = MetricsRegistry.getDefault().histogram("exchange.compute");
 
     public CurrencyExchangeCalculateService(ExchangeRateAPIHandler exchangeRateAPIHandler) {
+        this.exchangeRateAPIHandler = () -> exchangeRateAPIHandler;
+    }
+
+    /**
+     * The handler, and with it the HTTP client, is only requested when a rate is first looked up.
+     */
+    public CurrencyExchangeCalculateService(Supplier<ExchangeRateAPIHandler> exchangeRateAPIHandler) {
         this.exchangeRateAPIHandler = exchangeRateAPIHandler;
     }
 
     public CurrencyExchange calculateExchangeAmount (String sourceCurrency, double amount, String targetCurrency, String date) {
+        return calculateExchangeAmount(sourceCurrency, amount, targetCurrency, date, null);
+    }
+
+    /**
+     * Like {@link #calculateExchangeAmount(String, double, String, String)}, and also records the fetch and compute
+     * time and any table request in the given statistics.
+     */
+    public CurrencyExchange calculateExchangeAmount(String sourceCurrency, double amount, String targetCurrency, String date,
+                                                    ConversionStatistics statistics) {
         if (sourceCurrency == null) {
             throw new IllegalArgumentException("Source currency must not be null");
         }
@@ -21,11 +44,33 @@ public class CurrencyExchangeCalculateService {
             throw new IllegalArgumentException("Amount must be a positive number");
         }
 
-        CurrencyExchange sourceCurrencyExchange = exchangeRateAPIHandler.getExchangeRateSingleCurrency(sourceCurrency, date);
+        long fetchStartNanos = System.nanoTime();
+        ExchangeRateTable exchangeRateTable;
+        try {
+            exchangeRateTable = exchangeRateAPIHandler.get().getExchangeRateTable(date, statistics);
+        } finally {
+            long fetchNanos = System.nanoTime() - fetchStartNanos;
+            fetchTime.record(fetchNanos);
+            if (statistics != null) {
+                statistics.recordFetchTime(fetchNanos);
+            }
+        }
+
+        long computeStartNanos = System.nanoTime();
 
-        return targetCurrency.isEmpty() || targetCurrency.equalsIgnoreCase("pln")
-                ? calculateExchangeAmountForPLN(sourceCurrencyExchange, amount)
-                : calculateExchangeAmountForOtherCurrency(sourceCurrencyExchange, amount, targetCurrency, date);
+        try {
+            CurrencyExchange sourceCurrencyExchange = exchangeRateTable.getCurrencyExchange(sourceCurrency);
+
+            return targetCurrency.isEmpty() || targetCurrency.equalsIgnoreCase("pln")
+                    ? calculateExchangeAmountForPLN(sourceCurrencyExchange, amount)
+                    : calculateExchangeAmountForOtherCurrency(sourceCurrencyExchange, amount, exchangeRateTable.getCurrencyExchange(targetCurrency));
+        } finally {
+            long computeNanos = System.nanoTime() - computeStartNanos;
+            computeTime.record(computeNanos);
+            if (statistics != null) {
+                statistics.recordComputeTime(computeNanos);
+            }
+        }
     }
 
     private CurrencyExchange calculateExchangeAmountForPLN(CurrencyExchange sourceCurrencyExchange, double amount) {
@@ -37,8 +82,7 @@ public class CurrencyExchangeCalculateService {
         return sourceCurrencyExchange;
     }
 
-    private CurrencyExchange calculateExchangeAmountForOtherCurrency(CurrencyExchange sourceCurrencyExchange, double amount, String targetCurrency, String date) {
-        CurrencyExchange targetCurrencyExchange = exchangeRateAPIHandler.getExchangeRateSingleCurrency(targetCurrency, date);
+    private CurrencyExchange calculateExchangeAmountForOtherCurrency(CurrencyExchange sourceCurrencyExchange, double amount, CurrencyExchange targetCurrencyExchange) {
         double askAmount = roundAmount(sourceCurrencyExchange.getAsk() * amount / targetCurrencyExchange.getAsk());
         double bidAmount = roundAmount(sourceCurrencyExchange.getBid() * amount / targetCurrencyExchange.getBid());
 
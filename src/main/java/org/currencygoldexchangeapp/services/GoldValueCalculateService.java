@@ -1,78 +1,58 @@
 package org.currencygoldexchangeapp.services;
 
-import org.currencygoldexchangeapp.constants.ListOfHolidays;
-import org.currencygoldexchangeapp.datamodels.GoldValue;
+import org.currencygoldexchangeapp.cache.GoldValueHistory;
+import org.currencygoldexchangeapp.datamodels.GoldValueSeries;
 import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
 import org.currencygoldexchangeapp.handlers.GoldValueAPIHandler;
+import org.currencygoldexchangeapp.utils.BusinessDayCalendar;
 
 import java.math.BigDecimal;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 public class GoldValueCalculateService {
-    private final GoldValueAPIHandler goldValueAPIHandler;
-    private final ListOfHolidays listOfHolidays;
+    private final GoldValueHistory goldValueHistory;
+    private final BusinessDayCalendar businessDayCalendar;
 
     public GoldValueCalculateService(GoldValueAPIHandler goldValueAPIHandler) {
-        this.goldValueAPIHandler = goldValueAPIHandler;
-        this.listOfHolidays = new ListOfHolidays(LocalDate.now().getYear());
+        this(new GoldValueHistory(goldValueAPIHandler));
+    }
+
+    public GoldValueCalculateService(GoldValueHistory goldValueHistory) {
+        this.goldValueHistory = goldValueHistory;
+        this.businessDayCalendar = BusinessDayCalendar.getDefault();
     }
 
     public Optional<BigDecimal> calculateGainOrLoss(String startDate, String endDate) {
+        if (startDate == null || endDate == null || startDate.isEmpty() || endDate.isEmpty()) {
+            return Optional.empty();
+        }
+
         try {
-            List<GoldValue> goldValueList = goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate);
+            LocalDate rangeStartDate = LocalDate.parse(startDate);
+            LocalDate currentDate = LocalDate.parse(endDate);
+            GoldValueSeries series = goldValueHistory.getSeries(rangeStartDate, currentDate);
 
-            if (goldValueList.isEmpty()) {
+            int firstIndex = series.firstIndexOnOrAfter(rangeStartDate);
+            int lastIndex = series.lastIndexOnOrBefore(currentDate);
+            if (firstIndex > lastIndex) {
                 return Optional.empty();
             }
 
-            Optional<BigDecimal> currentPriceOptional = goldValueList.stream()
-                    .map(goldValue -> BigDecimal.valueOf(goldValue.getValue()))
-                    .collect(Collectors.collectingAndThen(Collectors.toList(), list -> {
-                        Collections.reverse(list);
-                        return list.stream().findFirst();
-                    }));
-
-            if (currentPriceOptional.isEmpty()) {
-                throw new RuntimeException("No gold value found for the end date.");
-            }
+            double currentPrice = series.getPrice(lastIndex);
 
-            BigDecimal currentPrice = currentPriceOptional.get();
+            double bestPrice;
 
-            LocalDate currentDate = LocalDate.parse(endDate);
-
-            BigDecimal bestPrice;
-
-            if(listOfHolidays.isHoliday(currentDate) || currentDate.getDayOfWeek() == DayOfWeek.SATURDAY || currentDate.getDayOfWeek() == DayOfWeek.SUNDAY || goldValueList.size() == 1) {
-                bestPrice = calculateBestPriceForWeekendDay(goldValueList);
+            if(!businessDayCalendar.isBusinessDay(currentDate) || firstIndex == lastIndex) {
+                bestPrice = series.maxPrice(firstIndex, lastIndex);
             } else {
-                bestPrice = calculateBestPriceForWorkingDay(goldValueList);
+                // On a publication day the latest price is today's, so it is compared against the earlier ones only.
+                bestPrice = series.maxPrice(firstIndex, lastIndex - 1);
             }
 
-            return Optional.of(currentPrice.subtract(bestPrice));
+            return Optional.of(BigDecimal.valueOf(currentPrice).subtract(BigDecimal.valueOf(bestPrice)));
         } catch (DataNotFoundException e) {
             return Optional.empty();
         }
     }
-
-    private BigDecimal calculateBestPriceForWorkingDay(List<GoldValue> goldValueList) {
-        return goldValueList.stream()
-                .sorted(Comparator.comparing(GoldValue::getEffectiveDate).reversed())
-                .skip(1)
-                .max(Comparator.comparing(GoldValue::getValue))
-                .map(goldValue -> BigDecimal.valueOf(goldValue.getValue()))
-                .orElseThrow(() -> new RuntimeException("No gold value data found in the response."));
-    }
-
-    private BigDecimal calculateBestPriceForWeekendDay(List<GoldValue> goldValueList) {
-        return goldValueList.stream()
-                .max(Comparator.comparing(GoldValue::getValue))
-                .map(goldValue -> BigDecimal.valueOf(goldValue.getValue()))
-                .orElseThrow(() -> new RuntimeException("No gold value data found in the response."));
-    }
-}
\ No newline at end of file
+}
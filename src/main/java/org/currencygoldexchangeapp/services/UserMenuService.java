@@ -1,14 +1,19 @@
 package org.currencygoldexchangeapp.services;
 
+import org.currencygoldexchangeapp.cache.CurrencyRegistry;
 import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
 import org.currencygoldexchangeapp.datamodels.GoldValue;
 import org.currencygoldexchangeapp.exceptions.CurrencyNotFoundException;
 import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+import org.currencygoldexchangeapp.exceptions.ServiceUnavailableException;
 import org.currencygoldexchangeapp.handlers.ExchangeRateAPIHandler;
 import org.currencygoldexchangeapp.handlers.ExchangeRateFileReaderHandler;
 import org.currencygoldexchangeapp.handlers.ExchangeRateFileSaverHandler;
 import org.currencygoldexchangeapp.handlers.GoldValueAPIHandler;
+import org.currencygoldexchangeapp.handlers.NbpHttpClientSettings;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
 import org.currencygoldexchangeapp.utils.InputUtility;
+import org.currencygoldexchangeapp.utils.Lazy;
 
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -21,24 +26,27 @@ import java.util.Optional;
 import java.util.Scanner;
 
 public class UserMenuService {
+    /** Set to true (-Dcurrencygoldexchangeapp.profile=true) to print a performance report after each file run. */
+    public static final String PROFILE_PROPERTY = "currencygoldexchangeapp.profile";
+
     private final Scanner scanner = new Scanner(System.in);
-    private final ExchangeRateFileReaderHandler exchangeRateFileReaderHandler;
-    private final ExchangeRateFileSaverHandler exchangeRateFileSaverHandler;
-    private final GoldValueAPIHandler goldValueAPIHandler;
-    private final CurrencyExchangeCalculateService currencyExchangeCalculateService;
-    private final GoldValueCalculateService goldValueCalculateService;
-
-    public UserMenuService() {
-        HttpClient httpClient = HttpClient.newHttpClient();
-        ExchangeRateAPIHandler exchangeRateAPIHandler = new ExchangeRateAPIHandler(httpClient);
-        this.currencyExchangeCalculateService = new CurrencyExchangeCalculateService(exchangeRateAPIHandler);
-        this.exchangeRateFileReaderHandler = new ExchangeRateFileReaderHandler(currencyExchangeCalculateService);
-        this.exchangeRateFileSaverHandler = new ExchangeRateFileSaverHandler();
-        this.goldValueAPIHandler = new GoldValueAPIHandler(httpClient);
-        this.goldValueCalculateService = new GoldValueCalculateService(goldValueAPIHandler);
-    }
+    // Components are created on first use, so a session that never touches gold does not build the gold handler,
+    // and one that never looks up a rate does not build the exchange rate handler.
+    private final Lazy<HttpClient> httpClient = Lazy.of(NbpHttpClientSettings::newConfiguredClient);
+    private final Lazy<ExchangeRateAPIHandler> exchangeRateAPIHandler = Lazy.of(this::createExchangeRateAPIHandler);
+    private final Lazy<CurrencyExchangeCalculateService> currencyExchangeCalculateService =
+            Lazy.of(() -> new CurrencyExchangeCalculateService(exchangeRateAPIHandler));
+    private final Lazy<ExchangeRateFileReaderHandler> exchangeRateFileReaderHandler =
+            Lazy.of(() -> new ExchangeRateFileReaderHandler(currencyExchangeCalculateService.get()));
+    private final Lazy<ExchangeRateFileSaverHandler> exchangeRateFileSaverHandler = Lazy.of(ExchangeRateFileSaverHandler::new);
+    private final Lazy<GoldValueAPIHandler> goldValueAPIHandler = Lazy.of(() -> new GoldValueAPIHandler(httpClient.get()));
+    private final Lazy<GoldValueCalculateService> goldValueCalculateService =
+            Lazy.of(() -> new GoldValueCalculateService(goldValueAPIHandler.get()));
 
     public void runApplication() {
+        // Starting JMX takes a moment, so the metrics are registered in the background.
+        Thread.ofVirtual().name("metrics-mbean-registration").start(MetricsRegistry.getDefault()::registerMBean);
+
         System.out.println("\u001B[32m" + "Welcome to the Currency Exchange and Gold Price Application!");
         System.out.println("In our application, you can:");
         System.out.println("- Check currency exchange rates for a specific date and save results for later.");
@@ -56,6 +64,13 @@ public class UserMenuService {
         }
     }
 
+    private ExchangeRateAPIHandler createExchangeRateAPIHandler() {
+        ExchangeRateAPIHandler handler = new ExchangeRateAPIHandler(httpClient.get());
+        // Picks up currencies added to or dropped from table C, once the session needs exchange rates at all.
+        Thread.ofVirtual().name("currency-registry-refresh").start(() -> CurrencyRegistry.getDefault().refresh(handler));
+        return handler;
+    }
+
     private void displayMenu() {
         System.out.println("\u001B[1m" + "Menu:");
         System.out.println("1. Currency exchange prices for a specific date.");
@@ -79,16 +94,16 @@ public class UserMenuService {
     private void handleUserChoice(int choice) {
         switch (choice) {
             case 1:
-                displaySingleCurrencyExchange(currencyExchangeCalculateService, exchangeRateFileSaverHandler);
+                displaySingleCurrencyExchange(currencyExchangeCalculateService.get(), exchangeRateFileSaverHandler.get());
                 break;
             case 2:
-                displayResultsFromFile(exchangeRateFileReaderHandler);
+                displayResultsFromFile(exchangeRateFileReaderHandler.get());
                 break;
             case 3:
-                displaySingleGoldValue(goldValueAPIHandler);
+                displaySingleGoldValue(goldValueAPIHandler.get());
                 break;
             case 4:
-                displayComparisonForGoldValue(goldValueCalculateService);
+                displayComparisonForGoldValue(goldValueCalculateService.get());
                 break;
             case 5:
                 System.out.println("Have a nice day. Closing the program...");
@@ -122,6 +137,8 @@ public class UserMenuService {
             System.out.println("Invalid currency code entered: " + e.getMessage());
         } catch (DateTimeParseException e) {
             System.out.println("Invalid date entered. Correct format is yyyy-MM-dd");
+        } catch (ServiceUnavailableException e) {
+            System.out.println(e.getMessage());
         }
     }
 
@@ -130,7 +147,8 @@ public class UserMenuService {
             System.out.print("Enter the file path: ");
             String filePath = scanner.nextLine();
 
-            Map<String, Double> exchangeRates = exchangeRateFileReaderHandler.readExchangeRates(filePath);
+            Map<String, Double> exchangeRates = exchangeRateFileReaderHandler.readExchangeRatesInParallel(filePath, ExchangeRateFileReaderHandler.DEFAULT_MAX_CONCURRENCY);
+            long outputStartNanos = System.nanoTime();
 
             if (!exchangeRates.isEmpty()) {
                 System.out.println("Results based on data from the file:");
@@ -149,6 +167,12 @@ public class UserMenuService {
                     System.out.println(errorMessage);
                 }
             }
+
+            if (Boolean.getBoolean(PROFILE_PROPERTY)) {
+                long outputNanos = System.nanoTime() - outputStartNanos;
+                exchangeRateFileReaderHandler.getLastRunReport()
+                        .ifPresent(report -> System.out.println(System.lineSeparator() + report.withOutputNanos(outputNanos).format()));
+            }
         } catch (IOException e) {
             System.err.println("An error occurred while reading exchange rates from the CSV file: " + e.getMessage());
         }
@@ -157,9 +181,13 @@ public class UserMenuService {
     private void displaySingleGoldValue(GoldValueAPIHandler goldValueAPIHandler) {
         LocalDate goldDate = InputUtility.getDateForGold(scanner);
 
-        GoldValue goldValue = goldValueAPIHandler.getGoldValueForSpecificDate(goldDate.toString());
+        try {
+            GoldValue goldValue = goldValueAPIHandler.getGoldValueForSpecificDate(goldDate.toString());
 
-        System.out.println("Value of gold on " + goldDate + ": " + goldValue.getValue() + " Pln/Gram");
+            System.out.println("Value of gold on " + goldDate + ": " + goldValue.getValue() + " Pln/Gram");
+        } catch (ServiceUnavailableException e) {
+            System.out.println(e.getMessage());
+        }
     }
 
     private void displayComparisonForGoldValue(GoldValueCalculateService goldValueCalculateService) {
@@ -168,8 +196,15 @@ public class UserMenuService {
         String startDateMonthly = LocalDate.of(LocalDate.now().getYear(), LocalDate.now().getMonth(), 1).toString();
         String startDateYearly = LocalDate.now().minusYears(1).toString();
 
-        Optional<BigDecimal> gainOrLossMonthly = goldValueCalculateService.calculateGainOrLoss(startDateMonthly, endDate);
-        Optional<BigDecimal> gainOrLossYearly = goldValueCalculateService.calculateGainOrLoss(startDateYearly, endDate);
+        Optional<BigDecimal> gainOrLossMonthly;
+        Optional<BigDecimal> gainOrLossYearly;
+        try {
+            gainOrLossMonthly = goldValueCalculateService.calculateGainOrLoss(startDateMonthly, endDate);
+            gainOrLossYearly = goldValueCalculateService.calculateGainOrLoss(startDateYearly, endDate);
+        } catch (ServiceUnavailableException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
 
         if (gainOrLossMonthly.isPresent()) {
             System.out.println("Today's gold price compared to the best price this month: " + gainOrLossMonthly.get() + " PLN");
@@ -0,0 +1,159 @@
+package org.currencygoldexchangeapp.utils;
+
+import java.util.OptionalLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the number of calls in flight with a limit found by AIMD. Latency is tracked as two moving averages:
+ * a short one over the last few calls and a long one that serves as the baseline. The limit grows by about
+ * one per round trip while the limit is actually in use and the short average stays within
+ * {@code latencyTolerance} of the baseline. It is multiplied by {@code backoffRatio} when a call is dropped
+ * (throttled, failed) or the short average rises past that tolerance. Comparing averages rather than single
+ * samples keeps the normal spread of WAN latency from looking like congestion. Only one decrease is applied
+ * per round trip: calls that started before the last decrease do not cut the limit again.
+ */
+public class AdaptiveConcurrencyLimiter {
+    public static final int DEFAULT_INITIAL_LIMIT = 4;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 32;
+
+    private static final double DEFAULT_BACKOFF_RATIO = 0.75;
+    private static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+    private static final double SHORT_LATENCY_WINDOW = 10;
+    // The baseline follows slowly, so that a permanently slower NBP does not look like congestion forever.
+    private static final double LONG_LATENCY_WINDOW = 500;
+
+    public enum Outcome {
+        /** The call got a usable answer; its latency is used to grow or shrink the limit. */
+        SUCCESS,
+        /** The call was throttled or failed; the limit is cut. */
+        DROPPED,
+        /** The call ended without telling anything about the server, e.g. it was interrupted. */
+        IGNORED
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private double shortLatencyNanos = Double.NaN;
+    private double longLatencyNanos = Double.NaN;
+    private long lastDecreaseNanos = Long.MIN_VALUE;
+
+    public AdaptiveConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_BACKOFF_RATIO, DEFAULT_LATENCY_TOLERANCE);
+    }
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+        if (minLimit <= 0 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1 || latencyTolerance <= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be in (0, 1) and latency tolerance above 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    /**
+     * Waits until a call may start and returns its start time, to be passed back to {@link #release}.
+     */
+    public long acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= (int) limit) {
+                permitReleased.await();
+            }
+            inFlight++;
+            return System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Like {@link #acquire()}, but returns empty instead of waiting when the limit is reached.
+     */
+    public OptionalLong tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                return OptionalLong.empty();
+            }
+            inFlight++;
+            return OptionalLong.of(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long startNanos, Outcome outcome) {
+        long endNanos = System.nanoTime();
+        long latencyNanos = endNanos - startNanos;
+        lock.lock();
+        try {
+            boolean limitInUse = inFlight * 2 >= (int) limit;
+            inFlight--;
+            switch (outcome) {
+                case SUCCESS -> {
+                    recordLatency(latencyNanos);
+                    if (shortLatencyNanos > longLatencyNanos * latencyTolerance) {
+                        decrease(startNanos, endNanos);
+                    } else if (limitInUse) {
+                        limit = Math.min(maxLimit, limit + 1.0 / limit);
+                    }
+                }
+                case DROPPED -> decrease(startNanos, endNanos);
+                case IGNORED -> {
+                }
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordLatency(long latencyNanos) {
+        if (Double.isNaN(longLatencyNanos)) {
+            shortLatencyNanos = latencyNanos;
+            longLatencyNanos = latencyNanos;
+            return;
+        }
+        shortLatencyNanos += (latencyNanos - shortLatencyNanos) / SHORT_LATENCY_WINDOW;
+        longLatencyNanos += (latencyNanos - longLatencyNanos) / LONG_LATENCY_WINDOW;
+    }
+
+    private void decrease(long startNanos, long endNanos) {
+        if (startNanos < lastDecreaseNanos) {
+            return;
+        }
+        limit = Math.max(minLimit, limit * backoffRatio);
+        lastDecreaseNanos = endNanos;
+    }
+}
@@ -0,0 +1,171 @@
+package org.currencygoldexchangeapp.utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+
+/**
+ * Days on which NBP publishes exchange rate tables and gold prices: weekdays that are not Polish public holidays.
+ * Days between the first and last year are precomputed into a bitset with a running count, so lookups inside
+ * that range take constant time. Days outside of it are evaluated from the holiday rules.
+ */
+public class BusinessDayCalendar {
+    public static final int FIRST_PUBLICATION_YEAR = 2002;
+
+    private static final MonthDay[] FIXED_HOLIDAYS = {
+            MonthDay.of(1, 1), MonthDay.of(5, 1), MonthDay.of(5, 3), MonthDay.of(8, 15),
+            MonthDay.of(11, 1), MonthDay.of(11, 11), MonthDay.of(12, 25), MonthDay.of(12, 26)
+    };
+
+    private final LocalDate firstDay;
+    private final LocalDate lastDay;
+    private final BitSet businessDays;
+    // businessDaysBefore[i] is the number of business days between firstDay and firstDay + i (exclusive).
+    private final int[] businessDaysBefore;
+
+    public BusinessDayCalendar(int firstYear, int lastYear) {
+        if (firstYear > lastYear) {
+            throw new IllegalArgumentException("First year must not be after last year");
+        }
+        this.firstDay = LocalDate.of(firstYear, 1, 1);
+        this.lastDay = LocalDate.of(lastYear, 12, 31);
+
+        int days = (int) ChronoUnit.DAYS.between(firstDay, lastDay) + 1;
+        this.businessDays = new BitSet(days);
+        this.businessDaysBefore = new int[days + 1];
+
+        LocalDate day = firstDay;
+        for (int i = 0; i < days; i++) {
+            boolean businessDay = isBusinessDayByRules(day);
+            if (businessDay) {
+                businessDays.set(i);
+            }
+            businessDaysBefore[i + 1] = businessDaysBefore[i] + (businessDay ? 1 : 0);
+            day = day.plusDays(1);
+        }
+    }
+
+    public static BusinessDayCalendar getDefault() {
+        return DefaultCalendarHolder.INSTANCE;
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        int index = indexOf(date);
+        return index >= 0 ? businessDays.get(index) : isBusinessDayByRules(date);
+    }
+
+    /**
+     * Returns the last business day strictly before the given date.
+     */
+    public LocalDate previousBusinessDay(LocalDate date) {
+        int index = indexOf(date);
+        if (index > 0) {
+            int previousIndex = businessDays.previousSetBit(index - 1);
+            if (previousIndex >= 0) {
+                return firstDay.plusDays(previousIndex);
+            }
+        }
+
+        LocalDate previousDay = date.minusDays(1);
+        while (!isBusinessDay(previousDay)) {
+            previousDay = previousDay.minusDays(1);
+        }
+        return previousDay;
+    }
+
+    /**
+     * Returns the number of business days between the given dates, both inclusive.
+     */
+    public int businessDaysBetween(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return 0;
+        }
+
+        int startIndex = indexOf(startDate);
+        int endIndex = indexOf(endDate);
+        if (startIndex >= 0 && endIndex >= 0) {
+            return businessDaysBefore[endIndex + 1] - businessDaysBefore[startIndex];
+        }
+
+        int count = 0;
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (isBusinessDay(day)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns true only for dates in the form yyyy-MM-dd that are known to have no publication, so callers
+     * can skip a request that could only end with HTTP 404.
+     */
+    public boolean isKnownNonBusinessDay(String date) {
+        try {
+            return !isBusinessDay(LocalDate.parse(date));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private int indexOf(LocalDate date) {
+        if (date.isBefore(firstDay) || date.isAfter(lastDay)) {
+            return -1;
+        }
+        return (int) ChronoUnit.DAYS.between(firstDay, date);
+    }
+
+    private static boolean isBusinessDayByRules(LocalDate date) {
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+            return false;
+        }
+        return !isPublicHoliday(date);
+    }
+
+    private static boolean isPublicHoliday(LocalDate date) {
+        MonthDay monthDay = MonthDay.from(date);
+        for (MonthDay holiday : FIXED_HOLIDAYS) {
+            if (holiday.equals(monthDay)) {
+                return true;
+            }
+        }
+
+        int year = date.getYear();
+        if (year >= 2011 && monthDay.equals(MonthDay.of(1, 6))) {
+            return true;
+        }
+        if (year >= 2025 && monthDay.equals(MonthDay.of(12, 24))) {
+            return true;
+        }
+
+        // Easter Sunday and Pentecost always fall on a Sunday, so only the movable weekday feasts are listed.
+        LocalDate easterSunday = calculateEasterSunday(year);
+        return date.equals(easterSunday.plusDays(1)) || date.equals(easterSunday.plusDays(60));
+    }
+
+    private static LocalDate calculateEasterSunday(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = (h + l - 7 * m + 114) % 31 + 1;
+        return LocalDate.of(year, month, day);
+    }
+
+    private static class DefaultCalendarHolder {
+        private static final BusinessDayCalendar INSTANCE =
+                new BusinessDayCalendar(FIRST_PUBLICATION_YEAR, LocalDate.now().getYear() + 1);
+    }
+}
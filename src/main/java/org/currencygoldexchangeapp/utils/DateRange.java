@@ -0,0 +1,36 @@
+package org.currencygoldexchangeapp.utils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public record DateRange(LocalDate start, LocalDate end) {
+    public DateRange {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+    }
+
+    public static List<DateRange> split(LocalDate start, LocalDate end, int maxDaysPerRange) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        if (maxDaysPerRange <= 0) {
+            throw new IllegalArgumentException("Days per range must be a positive number");
+        }
+
+        List<DateRange> ranges = new ArrayList<>();
+        LocalDate chunkStart = start;
+
+        while (!chunkStart.isAfter(end)) {
+            LocalDate chunkEnd = chunkStart.plusDays(maxDaysPerRange - 1L);
+            if (chunkEnd.isAfter(end)) {
+                chunkEnd = end;
+            }
+            ranges.add(new DateRange(chunkStart, chunkEnd));
+            chunkStart = chunkEnd.plusDays(1);
+        }
+
+        return ranges;
+    }
+}
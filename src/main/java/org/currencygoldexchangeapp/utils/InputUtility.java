@@ -1,10 +1,9 @@
 package org.currencygoldexchangeapp.utils;
 
+import org.currencygoldexchangeapp.cache.CurrencyRegistry;
+
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Scanner;
 
 public class InputUtility {
@@ -22,25 +21,7 @@ public class InputUtility {
     }
 
     public static boolean isCurrencyAvailable(String currency, String date) {
-        List<String> codeCurrencyAvailableFor2011AndLater = Arrays.asList("USD", "AUD", "CAD", "EUR", "HUF", "CHF", "GBP", "JPY", "CZK", "DKK", "NOK", "SEK", "XDR");
-        List<String> codeCurrencyAvailableFor2010AndBefore = Arrays.asList("USD", "AUD", "CAD", "EUR", "HUF", "CHF", "GBP", "JPY", "CZK", "DKK", "EEK", "NOK", "SEK", "XDR");
-
-        int year = Integer.parseInt(date.substring(0, 4));
-
-        List<String> availableCurrencies;
-
-        if (year >= 2011) {
-            availableCurrencies = codeCurrencyAvailableFor2011AndLater;
-        } else if (year >= 2003) {
-            availableCurrencies = codeCurrencyAvailableFor2010AndBefore;
-        } else {
-            availableCurrencies = new ArrayList<>();
-        }
-
-        return availableCurrencies.stream()
-                .map(String::toLowerCase)
-                .toList()
-                .contains(currency.toLowerCase());
+        return CurrencyRegistry.getDefault().isAvailable(currency, date);
     }
 
     private static LocalDate getDate(Scanner scanner, LocalDate minDate) {
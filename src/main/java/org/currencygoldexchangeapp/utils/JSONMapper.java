@@ -1,38 +1,226 @@
 package org.currencygoldexchangeapp.utils;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
 import org.currencygoldexchangeapp.datamodels.CurrencyRate;
+import org.currencygoldexchangeapp.datamodels.ExchangeRateTable;
 import org.currencygoldexchangeapp.datamodels.GoldValue;
+import org.currencygoldexchangeapp.events.JsonDecodeEvent;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
 
 public class JSONMapper {
-    ObjectMapper objectMapper = new ObjectMapper();
+    // JsonFactory is thread-safe and cheap to share; parsers created from it are per call.
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
     public CurrencyExchange deserializeJsonToCurrencyExchange(String jsonStr) {
-        CurrencyExchange currencyExchange = null;
-        try {
-            currencyExchange = objectMapper.readValue(jsonStr, CurrencyExchange.class);
-            List<CurrencyRate> currencyRates = currencyExchange.getRates();
-            if (!currencyRates.isEmpty()) {
-                currencyExchange.setBid(currencyRates.getFirst().getBid());
-                currencyExchange.setAsk(currencyRates.getFirst().getAsk());
-            }
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
+        try (JsonParser parser = JSON_FACTORY.createParser(jsonStr)) {
+            return decode(parser, "CurrencyExchange", this::readCurrencyExchange, currencyExchange -> currencyExchange.getRates().size());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public CurrencyExchange deserializeJsonToCurrencyExchange(InputStream jsonStream) {
+        try (JsonParser parser = JSON_FACTORY.createParser(jsonStream)) {
+            return decode(parser, "CurrencyExchange", this::readCurrencyExchange, currencyExchange -> currencyExchange.getRates().size());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public ExchangeRateTable deserializeJsonToExchangeRateTable(String jsonStr) {
+        try (JsonParser parser = JSON_FACTORY.createParser(jsonStr)) {
+            return decode(parser, "ExchangeRateTable", this::readFirstExchangeRateTable, table -> table.getRates().size());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public ExchangeRateTable deserializeJsonToExchangeRateTable(InputStream jsonStream) {
+        try (JsonParser parser = JSON_FACTORY.createParser(jsonStream)) {
+            return decode(parser, "ExchangeRateTable", this::readFirstExchangeRateTable, table -> table.getRates().size());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
-        return currencyExchange;
     }
 
     public List<GoldValue> deserializeJsonToGoldValueList(String jsonStr) {
-        try {
-            return objectMapper.readValue(jsonStr, new TypeReference<>() {
-            });
-        } catch (JsonProcessingException e) {
+        try (JsonParser parser = JSON_FACTORY.createParser(jsonStr)) {
+            return decode(parser, "GoldValues", this::readGoldValues, List::size);
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+
+    public List<GoldValue> deserializeJsonToGoldValueList(InputStream jsonStream) {
+        try (JsonParser parser = JSON_FACTORY.createParser(jsonStream)) {
+            return decode(parser, "GoldValues", this::readGoldValues, List::size);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes a flat JSON object. Values may be strings, numbers or null; fields keep the map's iteration order.
+     */
+    public byte[] serializeFieldsToJson(Map<String, ?> fields) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+            generator.writeStartObject();
+            for (Map.Entry<String, ?> field : fields.entrySet()) {
+                generator.writeFieldName(field.getKey());
+                writeValue(generator, field.getValue());
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private <T> T decode(JsonParser parser, String type, JsonReader<T> reader, ToIntFunction<T> itemCount) throws IOException {
+        JsonDecodeEvent event = new JsonDecodeEvent();
+        event.begin();
+        T result = reader.read(parser);
+        if (event.shouldCommit()) {
+            JsonLocation location = parser.currentLocation();
+            event.type = type;
+            event.bytes = location.getByteOffset() >= 0 ? location.getByteOffset() : location.getCharOffset();
+            event.items = itemCount.applyAsInt(result);
+            event.commit();
+        }
+        return result;
+    }
+
+    private CurrencyExchange readCurrencyExchange(JsonParser parser) throws IOException {
+        expect(parser.nextToken(), JsonToken.START_OBJECT);
+
+        CurrencyExchange currencyExchange = new CurrencyExchange();
+        List<CurrencyRate> currencyRates = new ArrayList<>();
+        String currencyName = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "code" -> currencyExchange.setCode(parser.getValueAsString());
+                case "currency" -> currencyName = parser.getValueAsString();
+                case "rates" -> readCurrencyRates(parser, currencyRates);
+                default -> parser.skipChildren();
+            }
+        }
+
+        // A single-currency response names the currency once, next to the code, rather than in every rate.
+        for (CurrencyRate currencyRate : currencyRates) {
+            if (currencyRate.getCurrency() == null) {
+                currencyRate.setCurrency(currencyName);
+            }
+        }
+        currencyExchange.setRates(currencyRates);
+        if (!currencyRates.isEmpty()) {
+            currencyExchange.setBid(currencyRates.getFirst().getBid());
+            currencyExchange.setAsk(currencyRates.getFirst().getAsk());
+        }
+        return currencyExchange;
+    }
+
+    private ExchangeRateTable readFirstExchangeRateTable(JsonParser parser) throws IOException {
+        expect(parser.nextToken(), JsonToken.START_ARRAY);
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new RuntimeException("No exchange rate table found in the response.");
+        }
+
+        ExchangeRateTable table = new ExchangeRateTable();
+        List<CurrencyRate> currencyRates = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "no" -> table.setNumber(parser.getValueAsString());
+                case "effectiveDate" -> table.setEffectiveDate(parser.getValueAsString());
+                case "rates" -> readCurrencyRates(parser, currencyRates);
+                default -> parser.skipChildren();
+            }
+        }
+
+        table.setRates(currencyRates);
+        return table;
+    }
+
+    private void readCurrencyRates(JsonParser parser, List<CurrencyRate> currencyRates) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_ARRAY);
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            CurrencyRate currencyRate = new CurrencyRate();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                parser.nextToken();
+                switch (fieldName) {
+                    case "code" -> currencyRate.setCode(parser.getValueAsString());
+                    case "currency" -> currencyRate.setCurrency(parser.getValueAsString());
+                    case "effectiveDate" -> currencyRate.setEffectiveDate(parser.getValueAsString());
+                    case "bid" -> currencyRate.setBid(parser.getDoubleValue());
+                    case "ask" -> currencyRate.setAsk(parser.getDoubleValue());
+                    default -> parser.skipChildren();
+                }
+            }
+            currencyRates.add(currencyRate);
+        }
+    }
+
+    private List<GoldValue> readGoldValues(JsonParser parser) throws IOException {
+        expect(parser.nextToken(), JsonToken.START_ARRAY);
+
+        List<GoldValue> goldValues = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            GoldValue goldValue = new GoldValue();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                parser.nextToken();
+                switch (fieldName) {
+                    case "data" -> goldValue.setEffectiveDate(parser.getValueAsString());
+                    case "cena" -> goldValue.setValue(parser.getDoubleValue());
+                    default -> parser.skipChildren();
+                }
+            }
+            goldValues.add(goldValue);
+        }
+        return goldValues;
+    }
+
+    private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        switch (value) {
+            case null -> generator.writeNull();
+            case BigDecimal decimal -> generator.writeNumber(decimal);
+            case Double number -> generator.writeNumber(number);
+            case Long number -> generator.writeNumber(number);
+            case Integer number -> generator.writeNumber(number);
+            default -> generator.writeString(value.toString());
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected JSON token: expected " + expected + " but was " + actual);
+        }
+    }
+}
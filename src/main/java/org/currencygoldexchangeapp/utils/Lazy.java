@@ -0,0 +1,39 @@
+package org.currencygoldexchangeapp.utils;
+
+import java.util.function.Supplier;
+
+/**
+ * Creates a value on first use and returns the same instance afterwards. Safe to share between threads.
+ */
+public final class Lazy<T> implements Supplier<T> {
+    private Supplier<T> initializer;
+    private volatile T value;
+
+    private Lazy(Supplier<T> initializer) {
+        this.initializer = initializer;
+    }
+
+    public static <T> Lazy<T> of(Supplier<T> initializer) {
+        return new Lazy<>(initializer);
+    }
+
+    @Override
+    public T get() {
+        T result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = initializer.get();
+                    value = result;
+                    initializer = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    public boolean isInitialized() {
+        return value != null;
+    }
+}
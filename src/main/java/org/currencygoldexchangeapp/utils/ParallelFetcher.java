@@ -0,0 +1,63 @@
+package org.currencygoldexchangeapp.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+public class ParallelFetcher {
+    private ParallelFetcher() {
+    }
+
+    /**
+     * Runs the fetcher for every task on virtual threads, with at most {@code maxParallelism} running at once,
+     * and concatenates the results in task order.
+     */
+    public static <T, R> List<R> fetchAll(List<T> tasks, int maxParallelism, Function<T, List<R>> fetcher) {
+        if (tasks.size() == 1) {
+            return fetcher.apply(tasks.getFirst());
+        }
+
+        Semaphore permits = new Semaphore(maxParallelism);
+        List<Future<List<R>>> futures = new ArrayList<>(tasks.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (T task : tasks) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return fetcher.apply(task);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            List<R> results = new ArrayList<>();
+            for (Future<List<R>> future : futures) {
+                results.addAll(await(future, futures));
+            }
+            return results;
+        }
+    }
+
+    private static <R> List<R> await(Future<List<R>> future, List<? extends Future<?>> allFutures) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            allFutures.forEach(other -> other.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            allFutures.forEach(other -> other.cancel(true));
+            throw new RuntimeException("Interrupted while waiting for the HTTP requests.", e);
+        }
+    }
+}
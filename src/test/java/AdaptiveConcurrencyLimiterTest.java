@@ -0,0 +1,123 @@
+import org.currencygoldexchangeapp.utils.AdaptiveConcurrencyLimiter;
+import org.currencygoldexchangeapp.utils.AdaptiveConcurrencyLimiter.Outcome;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void growsWhileLimitIsUsedAndLatencyIsFlat() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 8, 0.5, Double.MAX_VALUE);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            List<Long> startTimes = new ArrayList<>();
+            for (int call = limiter.getLimit(); call > 0; call--) {
+                startTimes.add(limiter.acquire());
+            }
+            startTimes.forEach(startNanos -> limiter.release(startNanos, Outcome.SUCCESS));
+        }
+
+        // Assert
+        assertEquals(8, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void growsWithNoisyButFlatLatency() throws Exception {
+        // Arrange: latencies spread evenly between 10ms and 100ms, as on a WAN with no congestion
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 32, 0.75, 2.0);
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            List<Long> startTimes = new ArrayList<>();
+            for (int call = limiter.getLimit(); call > 0; call--) {
+                startTimes.add(limiter.acquire());
+            }
+            startTimes.forEach(startNanos ->
+                    limiter.release(startNanos - TimeUnit.MICROSECONDS.toNanos(10_000 + random.nextInt(90_000)), Outcome.SUCCESS));
+        }
+
+        // Assert
+        assertEquals(32, limiter.getLimit());
+    }
+
+    @Test
+    public void doesNotGrowWhenLimitIsNotUsed() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 8, 0.5, Double.MAX_VALUE);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            limiter.release(limiter.acquire(), Outcome.SUCCESS);
+        }
+
+        // Assert
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void cutsLimitOncePerRoundTripOnDrops() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 8, 0.5, Double.MAX_VALUE);
+        long first = limiter.acquire();
+        long second = limiter.acquire();
+
+        // Act
+        limiter.release(first, Outcome.DROPPED);
+        limiter.release(second, Outcome.DROPPED);
+        int afterConcurrentDrops = limiter.getLimit();
+        limiter.release(limiter.acquire(), Outcome.DROPPED);
+
+        // Assert
+        assertEquals(4, afterConcurrentDrops);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void cutsLimitWhenLatencyRises() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 8, 0.5, 2.0);
+        limiter.release(limiter.acquire(), Outcome.SUCCESS);
+
+        // Act
+        long slowStart = limiter.acquire();
+        Thread.sleep(20);
+        limiter.release(slowStart, Outcome.SUCCESS);
+
+        // Assert
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void blocksCallsAboveTheLimit() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.5, 2.0);
+        long first = limiter.acquire();
+
+        // Act
+        CompletableFuture<Long> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        // Assert
+        assertThrows(TimeoutException.class, () -> second.get(50, TimeUnit.MILLISECONDS));
+        limiter.release(first, Outcome.IGNORED);
+        limiter.release(second.get(1, TimeUnit.SECONDS), Outcome.IGNORED);
+        assertEquals(0, limiter.getInFlight());
+    }
+}
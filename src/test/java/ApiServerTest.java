@@ -0,0 +1,176 @@
+import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.datamodels.GoldValue;
+import org.currencygoldexchangeapp.exceptions.CurrencyNotFoundException;
+import org.currencygoldexchangeapp.handlers.GoldValueAPIHandler;
+import org.currencygoldexchangeapp.server.ApiServer;
+import org.currencygoldexchangeapp.services.CurrencyExchangeCalculateService;
+import org.currencygoldexchangeapp.services.GoldValueCalculateService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ApiServerTest {
+    @Mock
+    private CurrencyExchangeCalculateService currencyExchangeCalculateService;
+    @Mock
+    private GoldValueAPIHandler goldValueAPIHandler;
+    @Mock
+    private GoldValueCalculateService goldValueCalculateService;
+
+    private ApiServer apiServer;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        apiServer = new ApiServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), currencyExchangeCalculateService,
+                goldValueAPIHandler, goldValueCalculateService);
+        apiServer.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        apiServer.close();
+    }
+
+    @Test
+    public void exchange_returnsConvertedAmountAsJson() throws Exception {
+        // Arrange
+        CurrencyExchange result = new CurrencyExchange();
+        result.setAsk(403.7);
+        result.setBid(395.7);
+        when(currencyExchangeCalculateService.calculateExchangeAmount("USD", 100.0, "PLN", "2024-01-16")).thenReturn(result);
+
+        // Act
+        HttpResponse<String> response = get("/api/exchange?source=usd&amount=100&date=2024-01-16");
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"source\":\"USD\",\"amount\":100.0,\"target\":\"PLN\",\"date\":\"2024-01-16\",\"ask\":403.7,\"bid\":395.7}", response.body());
+    }
+
+    @Test
+    public void exchange_withInvalidParameters_returnsBadRequest() throws Exception {
+        // Act
+        HttpResponse<String> missingAmount = get("/api/exchange?source=USD");
+        HttpResponse<String> invalidDate = get("/api/exchange?source=USD&amount=100&date=16-01-24");
+
+        // Assert
+        assertEquals(400, missingAmount.statusCode());
+        assertEquals("{\"error\":\"Missing query parameter: amount\"}", missingAmount.body());
+        assertEquals(400, invalidDate.statusCode());
+    }
+
+    @Test
+    public void exchange_withUnknownCurrency_returnsNotFound() throws Exception {
+        // Arrange
+        when(currencyExchangeCalculateService.calculateExchangeAmount("XYZ", 1.0, "PLN", "2024-01-16")).thenThrow(new CurrencyNotFoundException("XYZ"));
+
+        // Act
+        HttpResponse<String> response = get("/api/exchange?source=XYZ&amount=1&date=2024-01-16");
+
+        // Assert
+        assertEquals(404, response.statusCode());
+        assertEquals("{\"error\":\"XYZ\"}", response.body());
+    }
+
+    @Test
+    public void gold_returnsPriceForDate() throws Exception {
+        // Arrange
+        GoldValue goldValue = new GoldValue();
+        goldValue.setEffectiveDate("2024-01-16");
+        goldValue.setValue(252.25);
+        when(goldValueAPIHandler.getGoldValueForSpecificDate("2024-01-16")).thenReturn(goldValue);
+
+        // Act
+        HttpResponse<String> response = get("/api/gold?date=2024-01-16");
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"date\":\"2024-01-16\",\"price\":252.25}", response.body());
+    }
+
+    @Test
+    public void goldGainOrLoss_returnsDifference() throws Exception {
+        // Arrange
+        when(goldValueCalculateService.calculateGainOrLoss("2024-01-01", "2024-01-16")).thenReturn(Optional.of(new BigDecimal("-3.12")));
+
+        // Act
+        HttpResponse<String> response = get("/api/gold/gain-or-loss?start=2024-01-01&end=2024-01-16");
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"start\":\"2024-01-01\",\"end\":\"2024-01-16\",\"gainOrLoss\":-3.12}", response.body());
+    }
+
+    @Test
+    public void goldGainOrLoss_withoutData_returnsNotFound() throws Exception {
+        // Arrange
+        when(goldValueCalculateService.calculateGainOrLoss("2024-01-01", "2024-01-16")).thenReturn(Optional.empty());
+
+        // Act
+        HttpResponse<String> response = get("/api/gold/gain-or-loss?start=2024-01-01&end=2024-01-16");
+
+        // Assert
+        assertEquals(404, response.statusCode());
+    }
+
+    @Test
+    public void unknownPathAndMethod_areRejected() throws Exception {
+        // Act
+        HttpResponse<String> unknownPath = get("/api/goldx");
+        HttpResponse<String> post = client.send(HttpRequest.newBuilder(uri("/health")).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertEquals(404, unknownPath.statusCode());
+        assertEquals(405, post.statusCode());
+    }
+
+    @Test
+    public void concurrentRequests_areAllAnswered() {
+        // Arrange
+        when(goldValueCalculateService.calculateGainOrLoss("2024-01-01", "2024-01-16")).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return Optional.of(BigDecimal.ONE);
+        });
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            responses.add(client.sendAsync(HttpRequest.newBuilder(uri("/api/gold/gain-or-loss?start=2024-01-01&end=2024-01-16")).build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // Assert
+        assertTrue(responses.stream().map(CompletableFuture::join).allMatch(response -> response.statusCode() == 200));
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + apiServer.getPort() + path);
+    }
+}
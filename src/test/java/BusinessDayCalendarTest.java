@@ -0,0 +1,66 @@
+import org.currencygoldexchangeapp.utils.BusinessDayCalendar;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BusinessDayCalendarTest {
+    private final BusinessDayCalendar calendar = new BusinessDayCalendar(2002, 2025);
+
+    @Test
+    public void isBusinessDay_excludesWeekendsAndPublicHolidays() {
+        // Act and Assert
+        assertTrue(calendar.isBusinessDay(LocalDate.of(2024, 3, 6)));
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2024, 3, 9)));
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2024, 4, 1)));
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2024, 5, 30)));
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2023, 4, 10)));
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2023, 6, 8)));
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2024, 11, 11)));
+    }
+
+    @Test
+    public void isBusinessDay_appliesHolidaysIntroducedLater() {
+        // Act and Assert
+        assertTrue(calendar.isBusinessDay(LocalDate.of(2010, 1, 6)));
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2011, 1, 6)));
+        assertTrue(calendar.isBusinessDay(LocalDate.of(2024, 12, 24)));
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2025, 12, 24)));
+    }
+
+    @Test
+    public void isBusinessDay_outsidePrecomputedYears_usesHolidayRules() {
+        // Act and Assert
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2026, 4, 6)));
+        assertTrue(calendar.isBusinessDay(LocalDate.of(2026, 4, 7)));
+        assertFalse(calendar.isBusinessDay(LocalDate.of(2001, 1, 1)));
+    }
+
+    @Test
+    public void previousBusinessDay_skipsWeekendsAndHolidays() {
+        // Act and Assert
+        assertEquals(LocalDate.of(2024, 3, 29), calendar.previousBusinessDay(LocalDate.of(2024, 4, 2)));
+        assertEquals(LocalDate.of(2024, 3, 8), calendar.previousBusinessDay(LocalDate.of(2024, 3, 11)));
+        assertEquals(LocalDate.of(2025, 12, 31), calendar.previousBusinessDay(LocalDate.of(2026, 1, 2)));
+        assertEquals(LocalDate.of(2001, 12, 31), calendar.previousBusinessDay(LocalDate.of(2002, 1, 2)));
+    }
+
+    @Test
+    public void businessDaysBetween_countsBothEndsInclusive() {
+        // Act and Assert
+        assertEquals(5, calendar.businessDaysBetween(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 10)));
+        assertEquals(0, calendar.businessDaysBetween(LocalDate.of(2024, 3, 9), LocalDate.of(2024, 3, 10)));
+        assertEquals(1, calendar.businessDaysBetween(LocalDate.of(2024, 3, 6), LocalDate.of(2024, 3, 6)));
+        assertEquals(0, calendar.businessDaysBetween(LocalDate.of(2024, 3, 7), LocalDate.of(2024, 3, 6)));
+        assertEquals(8, calendar.businessDaysBetween(LocalDate.of(2025, 12, 29), LocalDate.of(2026, 1, 9)));
+    }
+
+    @Test
+    public void isKnownNonBusinessDay_ignoresInvalidDates() {
+        // Act and Assert
+        assertTrue(calendar.isKnownNonBusinessDay("2024-01-13"));
+        assertFalse(calendar.isKnownNonBusinessDay("2024-01-15"));
+        assertFalse(calendar.isKnownNonBusinessDay("not-a-date"));
+    }
+}
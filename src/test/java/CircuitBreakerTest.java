@@ -0,0 +1,111 @@
+import org.currencygoldexchangeapp.utils.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+    private final MutableClock clock = new MutableClock();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofSeconds(10), clock);
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        // Act
+        failCalls(2);
+        circuitBreaker.recordSuccess();
+        failCalls(2);
+        boolean permittedBeforeThreshold = circuitBreaker.tryAcquire();
+        circuitBreaker.recordFailure();
+
+        // Assert
+        assertTrue(permittedBeforeThreshold);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(Duration.ofSeconds(10), circuitBreaker.getRemainingOpenTime());
+        assertEquals(1, circuitBreaker.getOpenCount());
+    }
+
+    @Test
+    public void letsOneProbeThroughAfterOpenDuration() {
+        // Arrange
+        failCalls(3);
+        clock.advance(Duration.ofSeconds(10));
+
+        // Act
+        boolean probe = circuitBreaker.tryAcquire();
+        boolean concurrentCall = circuitBreaker.tryAcquire();
+        circuitBreaker.recordSuccess();
+
+        // Assert
+        assertTrue(probe);
+        assertFalse(concurrentCall);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void failedProbeOpensAgain() {
+        // Arrange
+        failCalls(3);
+        clock.advance(Duration.ofSeconds(11));
+
+        // Act
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.recordFailure();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(2, circuitBreaker.getOpenCount());
+    }
+
+    @Test
+    public void releasedProbeLetsNextCallProbe() {
+        // Arrange
+        failCalls(3);
+        clock.advance(Duration.ofSeconds(10));
+        assertTrue(circuitBreaker.tryAcquire());
+
+        // Act
+        circuitBreaker.releaseProbe();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    private void failCalls(int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.recordFailure();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-16T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+import org.currencygoldexchangeapp.datamodels.ConversionResult;
+import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.datamodels.FileRunReport;
+import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+import org.currencygoldexchangeapp.exceptions.ServiceUnavailableException;
+import org.currencygoldexchangeapp.handlers.ExchangeRateFileReaderHandler;
+import org.currencygoldexchangeapp.handlers.GoldValueAPIHandler;
+import org.currencygoldexchangeapp.services.CommandLineService;
+import org.currencygoldexchangeapp.services.CurrencyExchangeCalculateService;
+import org.currencygoldexchangeapp.services.GoldValueCalculateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CommandLineServiceTest {
+    @Mock
+    private CurrencyExchangeCalculateService currencyExchangeCalculateService;
+    @Mock
+    private ExchangeRateFileReaderHandler exchangeRateFileReaderHandler;
+    @Mock
+    private GoldValueAPIHandler goldValueAPIHandler;
+    @Mock
+    private GoldValueCalculateService goldValueCalculateService;
+
+    private CommandLineService commandLineService;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @BeforeEach
+    public void setUp() {
+        commandLineService = new CommandLineService(currencyExchangeCalculateService, exchangeRateFileReaderHandler, goldValueAPIHandler, goldValueCalculateService);
+    }
+
+    @Test
+    public void convert_printsResultOnStdout() {
+        // Arrange
+        CurrencyExchange result = new CurrencyExchange();
+        result.setAsk(403.7);
+        when(currencyExchangeCalculateService.calculateExchangeAmount("USD", 100.0, "PLN", "2024-01-16")).thenReturn(result);
+
+        // Act
+        int exitCode = run(InputStream.nullInputStream(), "convert", "usd", "100", "pln", "2024-01-16");
+
+        // Assert
+        assertEquals(CommandLineService.EXIT_OK, exitCode);
+        assertEquals("USD 100 PLN 2024-01-16 403.7", out.toString(StandardCharsets.UTF_8).trim());
+    }
+
+    @Test
+    public void convert_whenDataIsMissing_returnsFailure() {
+        // Arrange
+        when(currencyExchangeCalculateService.calculateExchangeAmount("USD", 100.0, "PLN", "2024-01-13")).thenThrow(new DataNotFoundException());
+
+        // Act
+        int exitCode = run(InputStream.nullInputStream(), "convert", "USD", "100", "PLN", "2024-01-13");
+
+        // Assert
+        assertEquals(CommandLineService.EXIT_FAILED, exitCode);
+        assertTrue(out.toString(StandardCharsets.UTF_8).isEmpty());
+    }
+
+    @Test
+    public void run_withInvalidArguments_printsUsage() {
+        // Act and Assert
+        assertEquals(CommandLineService.EXIT_USAGE, run(InputStream.nullInputStream()));
+        assertEquals(CommandLineService.EXIT_USAGE, run(InputStream.nullInputStream(), "unknown"));
+        assertEquals(CommandLineService.EXIT_USAGE, run(InputStream.nullInputStream(), "convert", "USD", "-1"));
+        assertEquals(CommandLineService.EXIT_USAGE, run(InputStream.nullInputStream(), "stream", "--concurrency", "zero"));
+        assertEquals(CommandLineService.EXIT_USAGE, run(InputStream.nullInputStream(), "serve", "--port", "-1"));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Usage:"));
+        verifyNoInteractions(currencyExchangeCalculateService, exchangeRateFileReaderHandler);
+    }
+
+    @Test
+    public void stream_convertsEveryLineFromStdin() {
+        // Arrange
+        String input = "USD 100 PLN 16-01-24\n\nEUR 10 USD 16-01-24\nXYZ 1 PLN 16-01-24\n";
+        when(exchangeRateFileReaderHandler.convertLine(anyString())).thenAnswer(invocation -> {
+            String line = invocation.getArgument(0);
+            return line.startsWith("XYZ") ? ConversionResult.failed("Invalid source currency code") : ConversionResult.processed(line, 1.5);
+        });
+
+        // Act
+        int exitCode = run(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), "stream", "--concurrency", "2");
+
+        // Assert
+        List<String> outputLines = Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\\R"));
+        assertEquals(CommandLineService.EXIT_FAILED, exitCode);
+        assertEquals(2, outputLines.size());
+        assertTrue(outputLines.contains("USD 100 PLN 16-01-24 1.5"));
+        assertTrue(outputLines.contains("EUR 10 USD 16-01-24 1.5"));
+        assertEquals("Invalid source currency code: XYZ 1 PLN 16-01-24", err.toString(StandardCharsets.UTF_8).trim());
+        verify(exchangeRateFileReaderHandler, times(3)).convertLine(anyString());
+    }
+
+    @Test
+    public void compareGold_printsMonthlyAndYearlyResults() {
+        // Arrange
+        when(goldValueCalculateService.calculateGainOrLoss(anyString(), anyString()))
+                .thenReturn(Optional.of(new BigDecimal("4.78")))
+                .thenReturn(Optional.empty());
+
+        // Act
+        int exitCode = run(InputStream.nullInputStream(), "compare-gold");
+
+        // Assert
+        assertEquals(CommandLineService.EXIT_OK, exitCode);
+        assertEquals("month 4.78\nyear n/a", out.toString(StandardCharsets.UTF_8).trim().replace(System.lineSeparator(), "\n"));
+    }
+
+    @Test
+    public void compareGold_whenNbpIsUnavailable_returnsFailure() {
+        // Arrange
+        when(goldValueCalculateService.calculateGainOrLoss(anyString(), anyString()))
+                .thenThrow(new ServiceUnavailableException("NBP API is unavailable."));
+
+        // Act
+        int exitCode = run(InputStream.nullInputStream(), "compare-gold");
+
+        // Assert
+        assertEquals(CommandLineService.EXIT_FAILED, exitCode);
+        assertEquals("NBP API is unavailable.", err.toString(StandardCharsets.UTF_8).trim());
+    }
+
+    @Test
+    public void convertFile_withProfile_printsReportOnStderr() throws Exception {
+        // Arrange
+        FileRunReport report = new FileRunReport(2, 2, 0, 1_000_000_000L, 1_000, 2_000, 3_000_000, 4_000, 0, 1, 1, 1_000, 2_000, 3_000, 1);
+        when(exchangeRateFileReaderHandler.readExchangeRatesInParallel("rates.csv", 8)).thenReturn(Map.of("USD_100_PLN_16-01-24", 403.7));
+        when(exchangeRateFileReaderHandler.getErrorMessages()).thenReturn(List.of());
+        when(exchangeRateFileReaderHandler.getLastRunReport()).thenReturn(Optional.of(report));
+
+        // Act
+        int exitCode = run(InputStream.nullInputStream(), "convert-file", "rates.csv", "--profile", "--concurrency", "8");
+
+        // Assert
+        assertEquals(CommandLineService.EXIT_OK, exitCode);
+        assertEquals("USD_100_PLN_16-01-24: 403.7", out.toString(StandardCharsets.UTF_8).trim());
+        String errOutput = err.toString(StandardCharsets.UTF_8);
+        assertTrue(errOutput.contains("2.0 lines/s"), errOutput);
+        assertTrue(errOutput.contains("NBP table requests: 1 made, 1 avoided"), errOutput);
+    }
+
+    private int run(InputStream in, String... args) {
+        return commandLineService.run(args, in, new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+}
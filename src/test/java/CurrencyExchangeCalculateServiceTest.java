@@ -1,23 +1,37 @@
 import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.datamodels.CurrencyRate;
+import org.currencygoldexchangeapp.datamodels.ExchangeRateTable;
+import org.currencygoldexchangeapp.exceptions.CurrencyNotFoundException;
 import org.currencygoldexchangeapp.handlers.ExchangeRateAPIHandler;
 import org.currencygoldexchangeapp.services.CurrencyExchangeCalculateService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class CurrencyExchangeCalculateServiceTest {
     @Mock
     private ExchangeRateAPIHandler exchangeRateAPIHandler;
-    @InjectMocks
     private CurrencyExchangeCalculateService currencyExchangeService;
 
+    @BeforeEach
+    public void setUp() {
+        currencyExchangeService = new CurrencyExchangeCalculateService(exchangeRateAPIHandler);
+    }
+
     @Test
     public void testCalculateExchangeAmountForPLN() {
         // Arrange
@@ -29,7 +43,7 @@ public class CurrencyExchangeCalculateServiceTest {
         CurrencyExchange sourceCurrencyExchange = new CurrencyExchange();
         initializeCurrencyExchange(sourceCurrencyExchange, sourceCurrency, 3.9570, 4.0370);
 
-        when(exchangeRateAPIHandler.getExchangeRateSingleCurrency(sourceCurrency, date)).thenReturn(sourceCurrencyExchange);
+        when(exchangeRateAPIHandler.getExchangeRateTable(date, null)).thenReturn(createExchangeRateTable(date, sourceCurrencyExchange));
 
         currencyExchangeService = new CurrencyExchangeCalculateService(exchangeRateAPIHandler);
 
@@ -53,7 +67,7 @@ public class CurrencyExchangeCalculateServiceTest {
         CurrencyExchange sourceCurrencyExchange = new CurrencyExchange();
         initializeCurrencyExchange(sourceCurrencyExchange, sourceCurrency, 3.9570, 4.0370);
 
-        when(exchangeRateAPIHandler.getExchangeRateSingleCurrency(sourceCurrency, date)).thenReturn(sourceCurrencyExchange);
+        when(exchangeRateAPIHandler.getExchangeRateTable(date, null)).thenReturn(createExchangeRateTable(date, sourceCurrencyExchange));
 
         currencyExchangeService = new CurrencyExchangeCalculateService(exchangeRateAPIHandler);
 
@@ -80,8 +94,7 @@ public class CurrencyExchangeCalculateServiceTest {
         CurrencyExchange targetCurrencyExchange = new CurrencyExchange();
         initializeCurrencyExchange(targetCurrencyExchange, targetCurrency, 0.027125, 0.027673);
 
-        when(exchangeRateAPIHandler.getExchangeRateSingleCurrency(sourceCurrency, date)).thenReturn(sourceCurrencyExchange);
-        when(exchangeRateAPIHandler.getExchangeRateSingleCurrency(targetCurrency, date)).thenReturn(targetCurrencyExchange);
+        when(exchangeRateAPIHandler.getExchangeRateTable(date, null)).thenReturn(createExchangeRateTable(date, sourceCurrencyExchange, targetCurrencyExchange));
 
         currencyExchangeService = new CurrencyExchangeCalculateService(exchangeRateAPIHandler);
 
@@ -124,6 +137,82 @@ public class CurrencyExchangeCalculateServiceTest {
         assertEquals("Amount must be a positive number", exception.getMessage());
     }
 
+    @Test
+    public void testCalculateExchangeAmountUsesSingleTableForBothCurrencies() {
+        // Arrange
+        String date = "2024-01-16";
+
+        CurrencyExchange sourceCurrencyExchange = new CurrencyExchange();
+        initializeCurrencyExchange(sourceCurrencyExchange, "USD", 3.9570, 4.0370);
+
+        CurrencyExchange targetCurrencyExchange = new CurrencyExchange();
+        initializeCurrencyExchange(targetCurrencyExchange, "JPY", 0.027125, 0.027673);
+
+        when(exchangeRateAPIHandler.getExchangeRateTable(date, null)).thenReturn(createExchangeRateTable(date, sourceCurrencyExchange, targetCurrencyExchange));
+
+        // Act
+        currencyExchangeService.calculateExchangeAmount("USD", 100.0, "JPY", date);
+
+        // Assert
+        verify(exchangeRateAPIHandler, times(1)).getExchangeRateTable(date, null);
+        verifyNoMoreInteractions(exchangeRateAPIHandler);
+    }
+
+    @Test
+    public void testCalculateExchangeAmountThrowsExceptionWhenCurrencyIsMissingFromTable() {
+        // Arrange
+        String date = "2024-01-16";
+
+        CurrencyExchange sourceCurrencyExchange = new CurrencyExchange();
+        initializeCurrencyExchange(sourceCurrencyExchange, "USD", 3.9570, 4.0370);
+
+        when(exchangeRateAPIHandler.getExchangeRateTable(date, null)).thenReturn(createExchangeRateTable(date, sourceCurrencyExchange));
+
+        // Act & Assert
+        CurrencyNotFoundException exception = assertThrows(CurrencyNotFoundException.class, () ->
+                currencyExchangeService.calculateExchangeAmount("USD", 100.0, "EEK", date));
+
+        assertEquals("EEK", exception.getMessage());
+    }
+
+    @Test
+    public void testHandlerIsRequestedOnlyWhenARateIsLookedUp() {
+        // Arrange
+        String date = "2024-01-16";
+        CurrencyExchange sourceCurrencyExchange = new CurrencyExchange();
+        initializeCurrencyExchange(sourceCurrencyExchange, "USD", 3.9570, 4.0370);
+        when(exchangeRateAPIHandler.getExchangeRateTable(date, null)).thenReturn(createExchangeRateTable(date, sourceCurrencyExchange));
+        AtomicInteger handlerRequests = new AtomicInteger();
+
+        // Act
+        CurrencyExchangeCalculateService lazyService = new CurrencyExchangeCalculateService(() -> {
+            handlerRequests.incrementAndGet();
+            return exchangeRateAPIHandler;
+        });
+        int requestsBeforeLookup = handlerRequests.get();
+        lazyService.calculateExchangeAmount("USD", 100.0, "PLN", date);
+
+        // Assert
+        assertEquals(0, requestsBeforeLookup);
+        assertEquals(1, handlerRequests.get());
+    }
+
+    private static ExchangeRateTable createExchangeRateTable(String date, CurrencyExchange... currencyExchanges) {
+        List<CurrencyRate> rates = new ArrayList<>();
+        for (CurrencyExchange currencyExchange : currencyExchanges) {
+            CurrencyRate rate = new CurrencyRate();
+            rate.setCode(currencyExchange.getCode());
+            rate.setBid(currencyExchange.getBid());
+            rate.setAsk(currencyExchange.getAsk());
+            rates.add(rate);
+        }
+
+        ExchangeRateTable exchangeRateTable = new ExchangeRateTable();
+        exchangeRateTable.setEffectiveDate(date);
+        exchangeRateTable.setRates(rates);
+        return exchangeRateTable;
+    }
+
     private static void initializeCurrencyExchange(CurrencyExchange sourceCurrencyExchange, String sourceCurrency, double bid, double ask) {
         sourceCurrencyExchange.setCode(sourceCurrency);
         sourceCurrencyExchange.setBid(bid);
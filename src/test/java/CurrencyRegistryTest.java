@@ -0,0 +1,147 @@
+import org.currencygoldexchangeapp.cache.CurrencyRegistry;
+import org.currencygoldexchangeapp.datamodels.CurrencyRate;
+import org.currencygoldexchangeapp.datamodels.ExchangeRateTable;
+import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+import org.currencygoldexchangeapp.handlers.ExchangeRateAPIHandler;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CurrencyRegistryTest {
+    private final CurrencyRegistry currencyRegistry = new CurrencyRegistry();
+
+    @Test
+    public void isAvailable_usesDatedIntervals() {
+        // Act and Assert
+        assertTrue(currencyRegistry.isAvailable("usd", LocalDate.of(2024, 3, 14)));
+        assertTrue(currencyRegistry.isAvailable("EEK", LocalDate.of(2010, 12, 31)));
+        assertFalse(currencyRegistry.isAvailable("EEK", LocalDate.of(2011, 1, 3)));
+        assertFalse(currencyRegistry.isAvailable("USD", LocalDate.of(2002, 12, 31)));
+        assertFalse(currencyRegistry.isAvailable("XYZ", LocalDate.of(2024, 3, 14)));
+        assertFalse(currencyRegistry.isAvailable("USD", "not-a-date"));
+        assertFalse(currencyRegistry.isAvailable(null, LocalDate.of(2024, 3, 14)));
+    }
+
+    @Test
+    public void refresh_addsNewCurrenciesAndClosesDroppedOnes() {
+        // Arrange
+        ExchangeRateTable table = createTable("2024-03-14", "USD", "EUR", "ABC");
+
+        // Act
+        currencyRegistry.refresh(table);
+
+        // Assert
+        assertTrue(currencyRegistry.isAvailable("ABC", LocalDate.of(2024, 3, 14)));
+        assertFalse(currencyRegistry.isAvailable("ABC", LocalDate.of(2024, 3, 13)));
+        assertTrue(currencyRegistry.isAvailable("USD", LocalDate.of(2024, 3, 15)));
+        assertTrue(currencyRegistry.isAvailable("CHF", LocalDate.of(2024, 3, 13)));
+        assertFalse(currencyRegistry.isAvailable("CHF", LocalDate.of(2024, 3, 14)));
+        assertTrue(currencyRegistry.getCurrencyCodes(LocalDate.of(2024, 3, 14)).contains("ABC"));
+    }
+
+    @Test
+    public void refresh_fromHandler_fallsBackToPreviousTableBeforePublication() {
+        // Arrange
+        LocalDate today = LocalDate.of(2024, 3, 14);
+        CurrencyRegistry registry = new CurrencyRegistry(fixedClock(today));
+        ExchangeRateAPIHandler handler = mock(ExchangeRateAPIHandler.class);
+        stubTableHistory(handler, date -> date.equals(today) ? null
+                : date.isBefore(LocalDate.of(2024, 3, 1)) ? new String[]{"USD"} : new String[]{"USD", "ABC"});
+
+        // Act
+        boolean refreshed = registry.refresh(handler);
+
+        // Assert
+        assertTrue(refreshed);
+        assertTrue(registry.isAvailable("ABC", today));
+    }
+
+    @Test
+    public void refresh_fromHandler_datesCurrenciesFromTableHistory() {
+        // Arrange
+        LocalDate today = LocalDate.of(2024, 3, 14);
+        CurrencyRegistry registry = new CurrencyRegistry(fixedClock(today));
+        ExchangeRateAPIHandler handler = mock(ExchangeRateAPIHandler.class);
+        stubTableHistory(handler, date -> {
+            List<String> codes = new ArrayList<>(List.of("USD"));
+            if (!date.isAfter(LocalDate.of(2010, 12, 31))) {
+                codes.add("EEK");
+            }
+            if (!date.isBefore(LocalDate.of(2020, 6, 1))) {
+                codes.add("ABC");
+            }
+            return codes.toArray(String[]::new);
+        });
+
+        // Act
+        boolean refreshed = registry.refresh(handler);
+
+        // Assert
+        assertTrue(refreshed);
+        assertTrue(registry.isAvailable("USD", LocalDate.of(2003, 1, 2)));
+        assertTrue(registry.isAvailable("EEK", LocalDate.of(2010, 12, 31)));
+        assertFalse(registry.isAvailable("EEK", LocalDate.of(2011, 1, 3)));
+        assertTrue(registry.isAvailable("ABC", LocalDate.of(2020, 6, 1)));
+        assertFalse(registry.isAvailable("ABC", LocalDate.of(2020, 5, 29)));
+        assertFalse(registry.isAvailable("CHF", today));
+        verify(handler, atMost(100)).getExchangeRateTable(anyString());
+    }
+
+    @Test
+    public void refresh_fromHandler_keepsIntervalsWhenHistoryCannotBeFetched() {
+        // Arrange
+        LocalDate today = LocalDate.of(2024, 3, 14);
+        CurrencyRegistry registry = new CurrencyRegistry(fixedClock(today));
+        ExchangeRateAPIHandler handler = mock(ExchangeRateAPIHandler.class);
+        stubTableHistory(handler, date -> date.getYear() == 2003 ? null : new String[]{"USD"});
+
+        // Act
+        boolean refreshed = registry.refresh(handler);
+
+        // Assert
+        assertFalse(refreshed);
+        assertTrue(registry.isAvailable("CHF", today));
+    }
+
+    /**
+     * Serves a table on every weekday for which the function returns codes; other days have no table.
+     */
+    private void stubTableHistory(ExchangeRateAPIHandler handler, Function<LocalDate, String[]> codesByDate) {
+        when(handler.getExchangeRateTable(anyString())).thenAnswer(invocation -> {
+            LocalDate date = LocalDate.parse(invocation.getArgument(0, String.class));
+            String[] codes = date.getDayOfWeek().getValue() > 5 ? null : codesByDate.apply(date);
+            if (codes == null) {
+                throw new DataNotFoundException();
+            }
+            return createTable(date.toString(), codes);
+        });
+    }
+
+    private Clock fixedClock(LocalDate today) {
+        return Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneId.of("UTC"));
+    }
+
+    private ExchangeRateTable createTable(String effectiveDate, String... codes) {
+        List<CurrencyRate> rates = new ArrayList<>();
+        for (String code : codes) {
+            CurrencyRate rate = new CurrencyRate();
+            rate.setCode(code);
+            rate.setBid(1.0);
+            rate.setAsk(1.1);
+            rates.add(rate);
+        }
+        ExchangeRateTable table = new ExchangeRateTable();
+        table.setEffectiveDate(effectiveDate);
+        table.setRates(rates);
+        return table;
+    }
+}
@@ -0,0 +1,29 @@
+import org.currencygoldexchangeapp.utils.DateRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DateRangeTest {
+    @Test
+    public void split_coversWholeRangeInChunks() {
+        // Act
+        List<DateRange> ranges = DateRange.split(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 10), 4);
+
+        // Assert
+        assertEquals(List.of(
+                new DateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 4)),
+                new DateRange(LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 8)),
+                new DateRange(LocalDate.of(2024, 1, 9), LocalDate.of(2024, 1, 10))
+        ), ranges);
+    }
+
+    @Test
+    public void split_throwsExceptionForNonPositiveChunkSize() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> DateRange.split(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 10), 0));
+        assertThrows(IllegalArgumentException.class, () -> DateRange.split(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 10), -1));
+    }
+}
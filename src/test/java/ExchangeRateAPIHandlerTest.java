@@ -1,23 +1,31 @@
 import org.apache.commons.io.IOUtils;
 import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
 import org.currencygoldexchangeapp.datamodels.CurrencyRate;
+import org.currencygoldexchangeapp.datamodels.CurrencyRateSeries;
+import org.currencygoldexchangeapp.datamodels.ExchangeRateTable;
 import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
 import org.currencygoldexchangeapp.handlers.ExchangeRateAPIHandler;
+import org.currencygoldexchangeapp.metrics.ConversionStatistics;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -28,11 +36,15 @@ public class ExchangeRateAPIHandlerTest {
     private HttpClient client;
 
     @Mock
-    private HttpResponse<String> response;
+    private HttpResponse<InputStream> response;
 
-    @InjectMocks
     private ExchangeRateAPIHandler handler;
 
+    @BeforeEach
+    public void setUp() {
+        handler = new ExchangeRateAPIHandler(client);
+    }
+
     @Test
     public void testGetExchangeRateSingleCurrency_ReturnsCorrectCurrencyExchange() {
         // Arrange
@@ -47,10 +59,10 @@ public class ExchangeRateAPIHandlerTest {
         rate.setAsk(4.0370);
         expectedCurrencyExchange.setRates(Collections.singletonList(rate));
 
-        when(response.body()).thenReturn(expectedResponse);
+        when(response.body()).thenAnswer(invocation -> toInputStream(expectedResponse));
         when(response.statusCode()).thenReturn(200);
         try {
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -63,7 +75,7 @@ public class ExchangeRateAPIHandlerTest {
         assertEquals(expectedCurrencyExchange.getRates().getFirst().getBid(), actualCurrencyExchange.getRates().getFirst().getBid());
         assertEquals(expectedCurrencyExchange.getRates().getFirst().getAsk(), actualCurrencyExchange.getRates().getFirst().getAsk());
         try {
-            verify(client, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()));
+            verify(client, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
         } catch (IOException | InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -75,7 +87,7 @@ public class ExchangeRateAPIHandlerTest {
         String currency = "USD";
         String date = "2024-01-16";
 
-        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenThrow(new IOException("Failed to send request"));
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenThrow(new IOException("Failed to send request"));
 
         // Act and Assert
         assertThrows(RuntimeException.class, () -> handler.getExchangeRateSingleCurrency(currency, date));
@@ -88,7 +100,7 @@ public class ExchangeRateAPIHandlerTest {
         String date = "2024-01-16";
 
         when(response.statusCode()).thenReturn(201);
-        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
         // Act and Assert
         assertThrows(RuntimeException.class, () -> handler.getExchangeRateSingleCurrency(currency, date));
@@ -100,7 +112,7 @@ public class ExchangeRateAPIHandlerTest {
         String currency = "USD";
         String date = "2024-01-16";
 
-        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenThrow(IOException.class);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenThrow(IOException.class);
 
         // Act and Assert
         assertThrows(RuntimeException.class, () -> handler.getExchangeRateSingleCurrency(currency, date));
@@ -150,12 +162,190 @@ public class ExchangeRateAPIHandlerTest {
         String currency = "USD";
         String date = "2024-01-16";
 
-        HttpResponse<String> notFoundResponse = mock(HttpResponse.class);
+        HttpResponse<InputStream> notFoundResponse = mock(HttpResponse.class);
         when(notFoundResponse.statusCode()).thenReturn(404);
-        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(notFoundResponse);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(notFoundResponse);
+
+        // Act and Assert
+        assertThrows(DataNotFoundException.class, () -> handler.getExchangeRateSingleCurrency(currency, date));
+    }
+
+    @Test
+    public void testGetExchangeRateSingleCurrency_SecondCallIsServedFromCache() throws Exception {
+        // Arrange
+        String currency = "USD";
+        String date = "2024-01-16";
+
+        when(response.body()).thenAnswer(invocation -> toInputStream(loadJsonFromFile("single_currency_response.json")));
+        when(response.statusCode()).thenReturn(200);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
+
+        // Act
+        CurrencyExchange firstResult = handler.getExchangeRateSingleCurrency(currency, date);
+        firstResult.setAsk(0);
+        CurrencyExchange secondResult = handler.getExchangeRateSingleCurrency("usd", date);
+
+        // Assert
+        assertEquals(4.0370, secondResult.getAsk());
+        assertEquals(3.9570, secondResult.getBid());
+        assertEquals(1, handler.getCache().getHitCount());
+        assertEquals(1, handler.getCache().getMissCount());
+        verify(client, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    @Test
+    public void testGetExchangeRateSingleCurrency_NotFoundIsCachedForPastDates() throws Exception {
+        // Arrange
+        String currency = "USD";
+        String date = "2024-01-15";
+
+        when(response.statusCode()).thenReturn(404);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
         // Act and Assert
         assertThrows(DataNotFoundException.class, () -> handler.getExchangeRateSingleCurrency(currency, date));
+        assertThrows(DataNotFoundException.class, () -> handler.getExchangeRateSingleCurrency(currency, date));
+        verify(client, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    @Test
+    public void testGetExchangeRateTable_ParsesEveryRateOfTheTable() throws Exception {
+        // Arrange
+        String date = "2024-01-16";
+
+        when(response.body()).thenAnswer(invocation -> toInputStream(loadJsonFromFile("currencies_response.json")));
+        when(response.statusCode()).thenReturn(200);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
+
+        // Act
+        ExchangeRateTable table = handler.getExchangeRateTable(date);
+        ExchangeRateTable cachedTable = handler.getExchangeRateTable(date);
+
+        // Assert
+        assertEquals("2024-01-16", table.getEffectiveDate());
+        assertEquals(13, table.getRates().size());
+        assertEquals(4.0370, table.getCurrencyExchange("usd").getAsk());
+        assertEquals(3.9570, table.getCurrencyExchange("USD").getBid());
+        assertSame(table, cachedTable);
+        verify(client, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    @Test
+    public void testGetExchangeRateTable_RecordsOnlyRequestsSentForTheCaller() throws Exception {
+        // Arrange
+        String date = "2024-01-16";
+        ConversionStatistics firstRun = new ConversionStatistics();
+        ConversionStatistics secondRun = new ConversionStatistics();
+
+        when(response.body()).thenAnswer(invocation -> toInputStream(loadJsonFromFile("currencies_response.json")));
+        when(response.statusCode()).thenReturn(200);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
+
+        // Act
+        handler.getExchangeRateTable(date, firstRun);
+        handler.getExchangeRateTable(date, firstRun);
+        handler.getExchangeRateTable(date, secondRun);
+
+        // Assert
+        assertEquals(1, firstRun.getTableFetches());
+        assertEquals(0, secondRun.getTableFetches());
+    }
+
+    @Test
+    public void testGetExchangeRateTable_RecordsLookupsFoldedIntoOneTableRequest() throws Exception {
+        // Arrange
+        String date = "2024-01-16";
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        long lookupsBefore = metrics.counter("nbp.tables.batch.lookups").sum();
+        long requestsBefore = metrics.counter("nbp.tables.batch.requests").sum();
+        long windowsBefore = metrics.histogram("nbp.tables.batch.window").getCount();
+        CountDownLatch requestSent = new CountDownLatch(1);
+        CountDownLatch releaseResponse = new CountDownLatch(1);
+
+        when(response.body()).thenAnswer(invocation -> toInputStream(loadJsonFromFile("currencies_response.json")));
+        when(response.statusCode()).thenReturn(200);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenAnswer(invocation -> {
+            requestSent.countDown();
+            releaseResponse.await();
+            return response;
+        });
+
+        // Act
+        Thread first = Thread.ofPlatform().start(() -> handler.getExchangeRateTable(date));
+        requestSent.await();
+        Thread second = Thread.ofPlatform().start(() -> handler.getExchangeRateTable(date));
+        while (second.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        releaseResponse.countDown();
+        first.join();
+        second.join();
+        handler.getExchangeRateTable(date);
+
+        // Assert
+        assertEquals(2, metrics.counter("nbp.tables.batch.lookups").sum() - lookupsBefore);
+        assertEquals(1, metrics.counter("nbp.tables.batch.requests").sum() - requestsBefore);
+        assertEquals(1, metrics.histogram("nbp.tables.batch.window").getCount() - windowsBefore);
+        verify(client, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    @Test
+    public void testGetExchangeRateTable_ThrowsDataNotFoundExceptionOn404() throws Exception {
+        // Arrange
+        String date = "2024-01-15";
+
+        when(response.statusCode()).thenReturn(404);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
+
+        // Act and Assert
+        assertThrows(DataNotFoundException.class, () -> handler.getExchangeRateTable(date));
+    }
+
+    @Test
+    public void testGetExchangeRateSingleCurrency_SkipsRequestOnNonPublicationDay() throws Exception {
+        // Act and Assert
+        assertThrows(DataNotFoundException.class, () -> handler.getExchangeRateSingleCurrency("USD", "2024-01-13"));
+        assertThrows(DataNotFoundException.class, () -> handler.getExchangeRateTable("2024-05-01"));
+        verify(client, never()).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    public void testGetExchangeRatesForDateRange_SplitsLongRangesIntoChunks() throws Exception {
+        // Arrange
+        when(response.body()).thenAnswer(invocation -> toInputStream(loadJsonFromFile("single_currency_response.json")));
+        when(response.statusCode()).thenReturn(200);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
+
+        // Act
+        CurrencyRateSeries series = handler.getExchangeRatesForDateRange("usd", "2024-01-01", "2024-12-31");
+
+        // Assert
+        assertEquals("USD", series.getCode());
+        assertEquals(1, series.size());
+        assertEquals(LocalDate.parse("2024-01-16"), series.getDate(0));
+        assertEquals(4.0370, series.getAsk(series.indexOf(LocalDate.parse("2024-01-16"))));
+        verify(client, times(4)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    @Test
+    public void testGetExchangeRatesForDateRange_ThrowsDataNotFoundExceptionWhenNoChunkHasData() throws Exception {
+        // Arrange
+        when(response.statusCode()).thenReturn(404);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
+
+        // Act and Assert
+        assertThrows(DataNotFoundException.class, () -> handler.getExchangeRatesForDateRange("USD", "2024-01-01", "2024-04-30"));
+        verify(client, times(2)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    @Test
+    public void testGetExchangeRatesForDateRange_ThrowsExceptionWhenStartDateIsAfterEndDate() {
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> handler.getExchangeRatesForDateRange("USD", "2024-02-01", "2024-01-01"));
+    }
+
+    private InputStream toInputStream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
     }
 
     private String loadJsonFromFile(String fileName) {
@@ -0,0 +1,146 @@
+import org.currencygoldexchangeapp.cache.ExchangeRateCache;
+import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExchangeRateCacheTest {
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    @Test
+    public void get_ReturnsCopyOfCachedRate() {
+        // Arrange
+        ExchangeRateCache cache = new ExchangeRateCache();
+        cache.put("USD", "2024-01-16", createCurrencyExchange("USD", 3.9570, 4.0370));
+
+        // Act
+        CurrencyExchange first = cache.get("usd", "2024-01-16").orElseThrow();
+        first.setAsk(0);
+        CurrencyExchange second = cache.get("USD", "2024-01-16").orElseThrow();
+
+        // Assert
+        assertEquals(4.0370, second.getAsk());
+        assertEquals(3.9570, second.getBid());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    public void get_CountsMisses() {
+        // Arrange
+        ExchangeRateCache cache = new ExchangeRateCache();
+
+        // Act
+        Optional<CurrencyExchange> result = cache.get("USD", "2024-01-16");
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void put_EvictsLeastRecentlyUsedEntryWhenEntryLimitIsReached() {
+        // Arrange
+        ExchangeRateCache cache = new ExchangeRateCache(2, Long.MAX_VALUE, Duration.ofMinutes(5), Clock.systemUTC());
+        cache.put("USD", "2024-01-16", createCurrencyExchange("USD", 3.9570, 4.0370));
+        cache.put("EUR", "2024-01-16", createCurrencyExchange("EUR", 4.3302, 4.4176));
+        cache.get("USD", "2024-01-16");
+
+        // Act
+        cache.put("CHF", "2024-01-16", createCurrencyExchange("CHF", 4.6000, 4.7000));
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(cache.get("USD", "2024-01-16").isPresent());
+        assertTrue(cache.get("EUR", "2024-01-16").isEmpty());
+    }
+
+    @Test
+    public void put_EvictsEntriesWhenByteLimitIsReached() {
+        // Arrange
+        ExchangeRateCache cache = new ExchangeRateCache(100, 400, Duration.ofMinutes(5), Clock.systemUTC());
+
+        // Act
+        cache.put("USD", "2024-01-16", createCurrencyExchange("USD", 3.9570, 4.0370));
+        cache.put("EUR", "2024-01-16", createCurrencyExchange("EUR", 4.3302, 4.4176));
+
+        // Assert
+        assertEquals(1, cache.size());
+        assertTrue(cache.getEstimatedBytes() <= 400);
+    }
+
+    @Test
+    public void putNotFound_ExpiresOnlyForToday() {
+        // Arrange
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-16T08:00:00Z"));
+        ExchangeRateCache cache = new ExchangeRateCache(100, Long.MAX_VALUE, Duration.ofMinutes(5), clock);
+        cache.putNotFound("USD", "2024-01-16");
+        cache.putNotFound("USD", "2024-01-13");
+
+        // Act
+        clock.advance(Duration.ofMinutes(6));
+
+        // Assert
+        assertTrue(cache.get("USD", "2024-01-16").isEmpty());
+        assertThrows(DataNotFoundException.class, () -> cache.get("USD", "2024-01-13"));
+    }
+
+    @Test
+    public void putNotFound_ExpiresForFutureDates() {
+        // Arrange
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-16T08:00:00Z"));
+        ExchangeRateCache cache = new ExchangeRateCache(100, Long.MAX_VALUE, Duration.ofMinutes(5), clock);
+        cache.putNotFound("USD", "2024-01-17");
+        cache.putTableNotFound("2024-02-01");
+
+        // Act & Assert
+        assertThrows(DataNotFoundException.class, () -> cache.get("USD", "2024-01-17"));
+        clock.advance(Duration.ofMinutes(6));
+        assertTrue(cache.get("USD", "2024-01-17").isEmpty());
+        assertTrue(cache.getTable("2024-02-01").isEmpty());
+    }
+
+    private static CurrencyExchange createCurrencyExchange(String code, double bid, double ask) {
+        CurrencyExchange currencyExchange = new CurrencyExchange();
+        currencyExchange.setCode(code);
+        currencyExchange.setBid(bid);
+        currencyExchange.setAsk(ask);
+        return currencyExchange;
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -1,4 +1,6 @@
 import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.datamodels.FileRunReport;
+import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
 import org.currencygoldexchangeapp.handlers.ExchangeRateFileReaderHandler;
 import org.currencygoldexchangeapp.services.CurrencyExchangeCalculateService;
 import org.junit.jupiter.api.Test;
@@ -7,10 +9,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -30,7 +38,7 @@ public class ExchangeRateFileReaderHandlerTest {
 
         ExchangeRateFileReaderHandler fileReaderHandler = new ExchangeRateFileReaderHandler(mockCalculateService);
 
-        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString()))
+        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString(), any()))
                 .thenReturn(createCurrencyExchange());
 
         // Act
@@ -47,6 +55,29 @@ public class ExchangeRateFileReaderHandlerTest {
         assertTrue(exchangeRates.containsKey("USD_100_PLN_27-12-23"));
     }
 
+    @Test
+    public void readExchangeRates_producesRunReport() throws IOException {
+        // Arrange
+        String pathToTheFile = "src/test/resources/test2.csv";
+        ExchangeRateFileReaderHandler fileReaderHandler = new ExchangeRateFileReaderHandler(mockCalculateService);
+
+        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString(), any()))
+                .thenReturn(createCurrencyExchange());
+
+        // Act
+        fileReaderHandler.readExchangeRatesInParallel(pathToTheFile, 4);
+        FileRunReport report = fileReaderHandler.getLastRunReport().orElseThrow();
+
+        // Assert
+        assertEquals(9, report.lines());
+        assertEquals(5, report.processedLines());
+        assertEquals(4, report.failedLines());
+        assertEquals(0, report.tableFetches());
+        assertEquals(5, report.tableFetchesAvoided());
+        assertTrue(report.p50LineNanos() <= report.p99LineNanos());
+        assertTrue(report.format().contains("lines: 9 (5 processed, 4 failed)"));
+    }
+
     @Test
     public void readExchangeRates_withInvalidRecord_SourceCurrency() {
         // Arrange
@@ -55,7 +86,7 @@ public class ExchangeRateFileReaderHandlerTest {
 
         ExchangeRateFileReaderHandler fileReaderHandler = new ExchangeRateFileReaderHandler(mockCalculateService);
 
-        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString()))
+        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString(), any()))
                 .thenReturn(createCurrencyExchange());
 
         // Act
@@ -81,7 +112,7 @@ public class ExchangeRateFileReaderHandlerTest {
 
         ExchangeRateFileReaderHandler fileReaderHandler = new ExchangeRateFileReaderHandler(mockCalculateService);
 
-        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString()))
+        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString(), any()))
                 .thenReturn(createCurrencyExchange());
 
         // Act
@@ -107,7 +138,7 @@ public class ExchangeRateFileReaderHandlerTest {
 
         ExchangeRateFileReaderHandler fileReaderHandler = new ExchangeRateFileReaderHandler(mockCalculateService);
 
-        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString()))
+        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString(), any()))
                 .thenReturn(createCurrencyExchange());
 
         // Act
@@ -133,7 +164,7 @@ public class ExchangeRateFileReaderHandlerTest {
 
         ExchangeRateFileReaderHandler fileReaderHandler = new ExchangeRateFileReaderHandler(mockCalculateService);
 
-        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString()))
+        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString(), any()))
                 .thenReturn(createCurrencyExchange());
 
         // Act
@@ -203,6 +234,106 @@ public class ExchangeRateFileReaderHandlerTest {
         assertTrue(errorMessages.isEmpty(), "Error messages should be empty for an invalid file format.");
     }
 
+    @Test
+    public void readExchangeRatesInParallel_matchesSequentialResultsAndOrder() throws IOException {
+        // Arrange
+        String pathToTheFile = "src/test/resources/test2.csv";
+        mockCalculateService = mock(CurrencyExchangeCalculateService.class);
+
+        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString(), any()))
+                .thenReturn(createCurrencyExchange());
+
+        ExchangeRateFileReaderHandler sequentialHandler = new ExchangeRateFileReaderHandler(mockCalculateService);
+        ExchangeRateFileReaderHandler parallelHandler = new ExchangeRateFileReaderHandler(mockCalculateService);
+
+        // Act
+        Map<String, Double> sequentialResults = sequentialHandler.readExchangeRates(pathToTheFile);
+        Map<String, Double> parallelResults = parallelHandler.readExchangeRatesInParallel(pathToTheFile, 4);
+
+        // Assert
+        assertEquals(new ArrayList<>(sequentialResults.entrySet()), new ArrayList<>(parallelResults.entrySet()));
+        assertEquals(sequentialHandler.getErrorMessages(), parallelHandler.getErrorMessages());
+        assertEquals(List.of(
+                "Invalid target currency code in the file at line 4: USD 100 KKK 09-02-24",
+                "Invalid date format in the file at line 6: USD 100 JPY 109-02-24",
+                "Invalid source currency code in the file at line 8: SSS 100 CHF 12-02-24",
+                "Invalid amount in the file at line 9: USD SSS CHF 12-02-24"), parallelHandler.getErrorMessages());
+    }
+
+    @Test
+    public void readExchangeRatesInParallel_reportsResultsHeldBehindASlowLine() throws IOException {
+        // Arrange
+        String pathToTheFile = "src/test/resources/test2.csv";
+        mockCalculateService = mock(CurrencyExchangeCalculateService.class);
+        CountDownLatch laterLinesConverted = new CountDownLatch(4);
+
+        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString(), any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(3).equals("2023-12-27")) {
+                laterLinesConverted.await(5, TimeUnit.SECONDS);
+            } else {
+                laterLinesConverted.countDown();
+            }
+            return createCurrencyExchange();
+        });
+
+        ExchangeRateFileReaderHandler sequentialHandler = new ExchangeRateFileReaderHandler(mockCalculateService);
+        ExchangeRateFileReaderHandler parallelHandler = new ExchangeRateFileReaderHandler(mockCalculateService);
+
+        // Act
+        parallelHandler.readExchangeRatesInParallel(pathToTheFile, 2);
+        sequentialHandler.readExchangeRates(pathToTheFile);
+
+        // Assert: the later lines wait for the first one, within the look-ahead of 4 lines per concurrency slot
+        assertEquals(1, sequentialHandler.getLastRunReport().orElseThrow().peakRetainedResults());
+        int peakRetainedResults = parallelHandler.getLastRunReport().orElseThrow().peakRetainedResults();
+        assertTrue(peakRetainedResults >= 5 && peakRetainedResults <= 8, "peak retained results: " + peakRetainedResults);
+    }
+
+    @Test
+    public void readExchangeRates_recordsCalculationErrors() throws IOException {
+        // Arrange
+        String pathToTheFile = "src/test/resources/test2.csv";
+        mockCalculateService = mock(CurrencyExchangeCalculateService.class);
+
+        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString(), any()))
+                .thenThrow(new DataNotFoundException());
+
+        ExchangeRateFileReaderHandler fileReaderHandler = new ExchangeRateFileReaderHandler(mockCalculateService);
+
+        // Act
+        Map<String, Double> exchangeRates = fileReaderHandler.readExchangeRatesInParallel(pathToTheFile, 4);
+
+        // Assert
+        assertTrue(exchangeRates.isEmpty());
+        assertTrue(fileReaderHandler.getErrorMessages().contains(
+                "ExchangeRateCalculationError (No data available for the given date) in the file at line 1: USD 100 PLN 27-12-23"));
+    }
+
+    @Test
+    public void readExchangeRatesInParallel_cancelsRemainingLinesOnUnexpectedError() {
+        // Arrange
+        String pathToTheFile = "src/test/resources/test2.csv";
+        mockCalculateService = mock(CurrencyExchangeCalculateService.class);
+        AtomicInteger calls = new AtomicInteger();
+
+        when(mockCalculateService.calculateExchangeAmount(anyString(), anyDouble(), anyString(), anyString(), any())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            if (invocation.getArgument(3).equals("2023-12-27")) {
+                throw new IllegalStateException("Unexpected error");
+            }
+            // Other lines hang until they are cancelled.
+            Thread.sleep(Duration.ofMinutes(1));
+            return createCurrencyExchange();
+        });
+
+        ExchangeRateFileReaderHandler fileReaderHandler = new ExchangeRateFileReaderHandler(mockCalculateService);
+
+        // Act & Assert
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                assertThrows(IllegalStateException.class, () -> fileReaderHandler.readExchangeRatesInParallel(pathToTheFile, 2)));
+        assertTrue(calls.get() <= 3, "Only lines within the concurrency limit should have been submitted, got " + calls.get());
+    }
+
     private static CurrencyExchange createCurrencyExchange() {
         CurrencyExchange currencyExchange = new CurrencyExchange();
         currencyExchange.setCode("USD");
@@ -134,4 +134,32 @@ public class ExchangeRateFileSaverHandlerTest {
             throw new RuntimeException(e);
         }
     }
+
+    @Test
+    public void saveExchangeRates_DuplicatesFromExistingFileIgnored() throws IOException {
+        // Arrange
+        LocalDate date = LocalDate.parse("2024-02-26");
+        CurrencyExchange result = new CurrencyExchange();
+        result.setBid(3.9448);
+        result.setAsk(4.0244);
+
+        String expectedFileName = "resultQueryToAPI_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".csv";
+        Path expectedFilePath = tempDir.resolve(expectedFileName);
+        String existingLine = String.format("%s,%.2f,%s,%s,%.4f,%.4f", "usd", 1.00, "pln", date, result.getBid(), result.getAsk());
+        Files.writeString(expectedFilePath, "SourceCurrency,Amount,TargetCurrency,Date,Bid,Ask\n" + existingLine + "\n");
+
+        fileSaverHandler = new ExchangeRateFileSaverHandler();
+
+        // Act
+        boolean isDuplicateSaved = fileSaverHandler.saveResultToCSV(tempDir, "USD", 1.00, "PLN", date, result);
+        boolean isNewSaved = fileSaverHandler.saveResultToCSV(tempDir, "EUR", 1.00, "PLN", date, result);
+        Files.writeString(expectedFilePath, "");
+        boolean isSavedAfterTruncate = fileSaverHandler.saveResultToCSV(tempDir, "EUR", 1.00, "PLN", date, result);
+
+        // Assert
+        assertFalse(isDuplicateSaved, "A row already present in the file should not be saved again.");
+        assertTrue(isNewSaved, "A new row should be saved.");
+        assertTrue(isSavedAfterTruncate, "The index should be rebuilt after the file changed on disk.");
+        assertEquals(2, Files.readAllLines(expectedFilePath).size(), "The truncated file should get a header and one data line.");
+    }
 }
@@ -0,0 +1,114 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.datamodels.ExchangeRateTable;
+import org.currencygoldexchangeapp.handlers.ExchangeRateFileReaderHandler;
+import org.currencygoldexchangeapp.services.CurrencyExchangeCalculateService;
+import org.currencygoldexchangeapp.utils.JSONMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class FlightRecorderEventsTest {
+    private static final String JSON_DECODE_EVENT = "org.currencygoldexchangeapp.JsonDecode";
+    private static final String FILE_LINE_EVENT = "org.currencygoldexchangeapp.FileLine";
+
+    @Mock
+    private CurrencyExchangeCalculateService currencyExchangeCalculateService;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void jsonDecode_recordsTypeBytesAndItems() throws IOException {
+        // Arrange
+        byte[] json = loadResource("currencies_response.json");
+
+        // Act
+        List<RecordedEvent> events = record(JSON_DECODE_EVENT, true, () -> {
+            ExchangeRateTable table = new JSONMapper().deserializeJsonToExchangeRateTable(new ByteArrayInputStream(json));
+            assertFalse(table.getRates().isEmpty());
+        });
+
+        // Assert
+        assertEquals(1, events.size());
+        RecordedEvent event = events.getFirst();
+        assertEquals("ExchangeRateTable", event.getString("type"));
+        assertTrue(event.getLong("bytes") > 0 && event.getLong("bytes") <= json.length);
+        assertTrue(event.getInt("items") > 0);
+    }
+
+    @Test
+    void fileLine_recordsLineAndOutcome() throws IOException {
+        // Arrange
+        CurrencyExchange result = new CurrencyExchange();
+        result.setAsk(403.7);
+        when(currencyExchangeCalculateService.calculateExchangeAmount("USD", 100.0, "PLN", "2024-01-16", null)).thenReturn(result);
+        ExchangeRateFileReaderHandler fileReaderHandler = new ExchangeRateFileReaderHandler(currencyExchangeCalculateService);
+
+        // Act
+        List<RecordedEvent> events = record(FILE_LINE_EVENT, true, () -> {
+            fileReaderHandler.convertLine("USD 100 PLN 16-01-24");
+            fileReaderHandler.convertLine("USD abc PLN 16-01-24");
+        });
+
+        // Assert
+        assertEquals(2, events.size());
+        assertEquals("USD 100 PLN 16-01-24", events.get(0).getString("line"));
+        assertTrue(events.get(0).getBoolean("processed"));
+        assertFalse(events.get(1).getBoolean("processed"));
+        assertEquals("Invalid amount", events.get(1).getString("errorReason"));
+    }
+
+    @Test
+    void jsonDecode_notRecordedWhenDisabled() throws IOException {
+        // Arrange
+        byte[] json = loadResource("currencies_response.json");
+
+        // Act
+        List<RecordedEvent> events = record(JSON_DECODE_EVENT, false,
+                () -> new JSONMapper().deserializeJsonToExchangeRateTable(new ByteArrayInputStream(json)));
+
+        // Assert
+        assertTrue(events.isEmpty());
+    }
+
+    private List<RecordedEvent> record(String eventName, boolean enabled, Runnable action) throws IOException {
+        Path recordingFile = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            if (enabled) {
+                recording.enable(eventName).withThreshold(Duration.ZERO);
+            } else {
+                recording.disable(eventName);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        return RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getEventType().getName().equals(eventName))
+                .toList();
+    }
+
+    private byte[] loadResource(String fileName) throws IOException {
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(fileName)) {
+            assertNotNull(inputStream);
+            return inputStream.readAllBytes();
+        }
+    }
+}
@@ -2,7 +2,10 @@ import org.apache.commons.io.IOUtils;
 import org.currencygoldexchangeapp.datamodels.GoldValue;
 import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
 import org.currencygoldexchangeapp.exceptions.ExceededResultsLimitException;
+import org.currencygoldexchangeapp.exceptions.ServiceUnavailableException;
 import org.currencygoldexchangeapp.handlers.GoldValueAPIHandler;
+import org.currencygoldexchangeapp.metrics.HttpEndpointMetrics;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,17 +13,21 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -31,7 +38,7 @@ public class GoldValueAPIHandlerTest {
     private HttpClient client;
 
     @Mock
-    private HttpResponse<String> response;
+    private HttpResponse<InputStream> response;
 
     @InjectMocks
     private GoldValueAPIHandler goldValueAPIHandler;
@@ -48,10 +55,10 @@ public class GoldValueAPIHandlerTest {
             GoldValue expectedGoldValue = new GoldValue();
             expectedGoldValue.setValue(value);
 
-            when(response.body()).thenReturn(expectedResponse);
+            when(response.body()).thenAnswer(invocation -> toInputStream(expectedResponse));
             when(response.statusCode()).thenReturn(200);
             try {
-                when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+                when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
             } catch (IOException | InterruptedException e) {
                 throw new RuntimeException(e);
             }
@@ -63,7 +70,7 @@ public class GoldValueAPIHandlerTest {
             assertEquals(expectedGoldValue.getValue(), actualGoldValue.getValue());
 
             try {
-                verify(client, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()));
+                verify(client, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
             } catch (IOException | InterruptedException e) {
                 throw new RuntimeException(e);
             }
@@ -74,7 +81,7 @@ public class GoldValueAPIHandlerTest {
             // Arrange
             String date = "2024-02-29";
 
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenThrow(new IOException("Failed to send request"));
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenThrow(new IOException("Failed to send request"));
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValueForSpecificDate(date));
@@ -86,7 +93,7 @@ public class GoldValueAPIHandlerTest {
             String date = "2024-02-29";
 
             when(response.statusCode()).thenReturn(201);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValueForSpecificDate(date));
@@ -98,7 +105,7 @@ public class GoldValueAPIHandlerTest {
             String date = "2024-02-29";
 
             when(response.statusCode()).thenReturn(400);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValueForSpecificDate(date));
@@ -110,7 +117,7 @@ public class GoldValueAPIHandlerTest {
             String date = "2024-02-29";
 
             when(response.statusCode()).thenReturn(404);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(DataNotFoundException.class, () -> goldValueAPIHandler.getGoldValueForSpecificDate(date));
@@ -122,7 +129,7 @@ public class GoldValueAPIHandlerTest {
             String date = "2024-02-29";
 
             when(response.statusCode()).thenReturn(408);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValueForSpecificDate(date));
@@ -134,7 +141,7 @@ public class GoldValueAPIHandlerTest {
             String date = "2024-02-29";
 
             when(response.statusCode()).thenReturn(500);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValueForSpecificDate(date));
@@ -146,7 +153,7 @@ public class GoldValueAPIHandlerTest {
             String date = "2024-02-29";
 
             when(response.statusCode()).thenReturn(503);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValueForSpecificDate(date));
@@ -158,18 +165,40 @@ public class GoldValueAPIHandlerTest {
             String date = "2024-02-29";
 
             when(response.statusCode()).thenReturn(504);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValueForSpecificDate(date));
         }
 
+        @Test
+        public void recordsStatusCodeAndFailureMetrics() throws Exception {
+            // Arrange
+            HttpEndpointMetrics goldMetrics = MetricsRegistry.getDefault().endpoint("nbp.gold");
+            long requestsBefore = goldMetrics.getRequestCount();
+            long unavailableBefore = goldMetrics.getStatusCount(503);
+            long failuresBefore = goldMetrics.getFailureCount();
+
+            when(response.statusCode()).thenReturn(503);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream())))
+                    .thenReturn(response)
+                    .thenThrow(IOException.class);
+
+            // Act
+            assertThrows(ServiceUnavailableException.class, () -> goldValueAPIHandler.getGoldValueForSpecificDate("2024-02-28"));
+
+            // Assert: every retry is counted as its own request
+            assertEquals(requestsBefore + 3, goldMetrics.getRequestCount());
+            assertEquals(unavailableBefore + 1, goldMetrics.getStatusCount(503));
+            assertEquals(failuresBefore + 2, goldMetrics.getFailureCount());
+        }
+
         @Test
         public void throwsRuntimeException_WhenIOExceptionOccurs() throws Exception {
             // Arrange
             String date = "2024-02-29";
 
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenThrow(IOException.class);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenThrow(IOException.class);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValueForSpecificDate(date));
@@ -209,10 +238,10 @@ public class GoldValueAPIHandlerTest {
 
             String expectedResponse = loadJsonFromFile("last_gold_values_response.json");
 
-            when(response.body()).thenReturn(expectedResponse);
+            when(response.body()).thenAnswer(invocation -> toInputStream(expectedResponse));
             when(response.statusCode()).thenReturn(200);
             try {
-                when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+                when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
             } catch (IOException | InterruptedException e) {
                 throw new RuntimeException(e);
             }
@@ -227,7 +256,7 @@ public class GoldValueAPIHandlerTest {
             }
 
             try {
-                verify(client, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()));
+                verify(client, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
             } catch (IOException | InterruptedException e) {
                 throw new RuntimeException(e);
             }
@@ -239,7 +268,7 @@ public class GoldValueAPIHandlerTest {
             String startDate = "2024-03-01";
             String endDate = "2024-03-07";
 
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenThrow(new IOException("Failed to send request"));
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenThrow(new IOException("Failed to send request"));
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate));
@@ -252,7 +281,7 @@ public class GoldValueAPIHandlerTest {
             String endDate = "2024-03-07";
 
             when(response.statusCode()).thenReturn(201);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate));
@@ -265,7 +294,7 @@ public class GoldValueAPIHandlerTest {
             String endDate = "2024-03-07";
 
             when(response.statusCode()).thenReturn(400);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(ExceededResultsLimitException.class, () -> goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate));
@@ -278,7 +307,7 @@ public class GoldValueAPIHandlerTest {
             String endDate = "2024-03-07";
 
             when(response.statusCode()).thenReturn(404);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(DataNotFoundException.class, () -> goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate));
@@ -291,7 +320,7 @@ public class GoldValueAPIHandlerTest {
             String endDate = "2024-03-07";
 
             when(response.statusCode()).thenReturn(408);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate));
@@ -304,7 +333,7 @@ public class GoldValueAPIHandlerTest {
             String endDate = "2024-03-07";
 
             when(response.statusCode()).thenReturn(500);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate));
@@ -317,7 +346,7 @@ public class GoldValueAPIHandlerTest {
             String endDate = "2024-03-07";
 
             when(response.statusCode()).thenReturn(503);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate));
@@ -330,19 +359,43 @@ public class GoldValueAPIHandlerTest {
             String endDate = "2024-03-07";
 
             when(response.statusCode()).thenReturn(504);
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenReturn(response);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(response);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate));
         }
 
+        @Test
+        public void recordsStatusCodeAndFailureMetrics() throws Exception {
+            // Arrange
+            String startDate = "2024-03-01";
+            String endDate = "2024-03-07";
+            HttpEndpointMetrics goldRangeMetrics = MetricsRegistry.getDefault().endpoint("nbp.gold.range");
+            long requestsBefore = goldRangeMetrics.getRequestCount();
+            long unavailableBefore = goldRangeMetrics.getStatusCount(503);
+            long failuresBefore = goldRangeMetrics.getFailureCount();
+
+            when(response.statusCode()).thenReturn(503);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream())))
+                    .thenReturn(response)
+                    .thenThrow(IOException.class);
+
+            // Act
+            assertThrows(ServiceUnavailableException.class, () -> goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate));
+
+            // Assert: every retry is counted as its own request
+            assertEquals(requestsBefore + 3, goldRangeMetrics.getRequestCount());
+            assertEquals(unavailableBefore + 1, goldRangeMetrics.getStatusCount(503));
+            assertEquals(failuresBefore + 2, goldRangeMetrics.getFailureCount());
+        }
+
         @Test
         public void throwsRuntimeException_WhenIOExceptionOccurs() throws Exception {
             // Arrange
             String startDate = "2024-03-01";
             String endDate = "2024-03-07";
 
-            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofString()))).thenThrow(IOException.class);
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenThrow(IOException.class);
 
             // Act and Assert
             assertThrows(RuntimeException.class, () -> goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate));
@@ -373,6 +426,102 @@ public class GoldValueAPIHandlerTest {
         }
     }
 
+    @Nested
+    class TestGetGoldValuesForLongDateRange {
+        @Test
+        public void splitsRangeIntoChunksAndMergesThemInDateOrder() throws Exception {
+            // Arrange
+            String startDate = "2023-03-07";
+            String endDate = "2024-03-06";
+            List<String> requestedPaths = Collections.synchronizedList(new ArrayList<>());
+
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenAnswer(invocation -> {
+                HttpRequest request = invocation.getArgument(0);
+                String[] pathParts = request.uri().getPath().split("/");
+                String chunkStart = pathParts[pathParts.length - 2];
+                String chunkEnd = pathParts[pathParts.length - 1];
+                requestedPaths.add(chunkStart + "/" + chunkEnd);
+                return createResponse("[{\"data\":\"" + chunkStart + "\",\"cena\":250.0},{\"data\":\"" + chunkEnd + "\",\"cena\":255.0}]");
+            });
+
+            // Act
+            List<GoldValue> actualGoldValues = goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate);
+
+            // Assert
+            assertEquals(4, requestedPaths.size());
+            assertTrue(requestedPaths.contains("2023-03-07/2023-06-07"));
+            assertTrue(requestedPaths.contains("2023-12-11/2024-03-06"));
+            assertEquals(8, actualGoldValues.size());
+            assertEquals(startDate, actualGoldValues.getFirst().getEffectiveDate());
+            assertEquals(endDate, actualGoldValues.getLast().getEffectiveDate());
+            for (int i = 1; i < actualGoldValues.size(); i++) {
+                assertTrue(actualGoldValues.get(i - 1).getEffectiveDate().compareTo(actualGoldValues.get(i).getEffectiveDate()) < 0);
+            }
+        }
+
+        @Test
+        public void skipsChunksWithoutData() throws Exception {
+            // Arrange
+            String startDate = "2023-01-01";
+            String endDate = "2023-06-30";
+
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenAnswer(invocation -> {
+                HttpRequest request = invocation.getArgument(0);
+                if (request.uri().getPath().endsWith("2023-01-01/2023-04-03")) {
+                    HttpResponse<InputStream> notFoundResponse = mock(HttpResponse.class);
+                    when(notFoundResponse.statusCode()).thenReturn(404);
+                    return notFoundResponse;
+                }
+                return createResponse("[{\"data\":\"2023-06-30\",\"cena\":255.0}]");
+            });
+
+            // Act
+            List<GoldValue> actualGoldValues = goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate);
+
+            // Assert
+            assertEquals(1, actualGoldValues.size());
+            assertEquals("2023-06-30", actualGoldValues.getFirst().getEffectiveDate());
+        }
+
+        @Test
+        public void clampsStartDateToBeginningOfGoldHistory() throws Exception {
+            // Arrange
+            List<String> requestedPaths = Collections.synchronizedList(new ArrayList<>());
+
+            when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenAnswer(invocation -> {
+                HttpRequest request = invocation.getArgument(0);
+                requestedPaths.add(request.uri().getPath());
+                return createResponse("[{\"data\":\"2013-01-02\",\"cena\":165.83}]");
+            });
+
+            // Act
+            goldValueAPIHandler.getGoldValuesForDateRange("2010-01-01", "2013-02-01");
+
+            // Assert
+            assertEquals(1, requestedPaths.size());
+            assertTrue(requestedPaths.getFirst().endsWith("2013-01-02/2013-02-01"));
+        }
+
+        @Test
+        public void throwsDataNotFoundException_WhenRangeEndsBeforeGoldHistory() throws Exception {
+            // Act and Assert
+            assertThrows(DataNotFoundException.class, () -> goldValueAPIHandler.getGoldValuesForDateRange("2011-01-01", "2012-12-31"));
+            verify(client, never()).send(any(HttpRequest.class), any());
+        }
+
+        @SuppressWarnings("unchecked")
+        private HttpResponse<InputStream> createResponse(String json) {
+            HttpResponse<InputStream> chunkResponse = mock(HttpResponse.class);
+            when(chunkResponse.statusCode()).thenReturn(200);
+            when(chunkResponse.body()).thenReturn(toInputStream(json));
+            return chunkResponse;
+        }
+    }
+
+    private InputStream toInputStream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
     private String loadJsonFromFile(String fileName) {
         try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(fileName)) {
             if (inputStream != null) {
@@ -16,6 +16,9 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -172,6 +175,34 @@ public class GoldValueCalculateServiceTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    public void testCalculateGainOrLoss_ReusesHistoryForNarrowerWindow() {
+        // Arrange
+        String startDate = "2024-02-29";
+        String endDate = "2024-03-06";
+
+        List<GoldValue> mockGoldValues = Arrays.asList(
+                createGoldValue("2024-02-29", 260.85),
+                createGoldValue("2024-03-01", 262.10),
+                createGoldValue("2024-03-04", 263.09),
+                createGoldValue("2024-03-05", 268.59),
+                createGoldValue("2024-03-06", 273.37)
+        );
+
+        when(goldValueAPIHandler.getGoldValuesForDateRange(startDate, endDate)).thenReturn(mockGoldValues);
+
+        goldValueCalculateService = new GoldValueCalculateService(goldValueAPIHandler);
+
+        // Act
+        Optional<BigDecimal> fullWindow = goldValueCalculateService.calculateGainOrLoss(startDate, endDate);
+        Optional<BigDecimal> narrowWindow = goldValueCalculateService.calculateGainOrLoss("2024-03-01", "2024-03-04");
+
+        // Assert
+        assertEquals(new BigDecimal("4.78"), fullWindow.orElseThrow());
+        assertEquals(new BigDecimal("0.99"), narrowWindow.orElseThrow());
+        verify(goldValueAPIHandler, times(1)).getGoldValuesForDateRange(anyString(), anyString());
+    }
+
     private GoldValue createGoldValue(String effectiveDate, double value) {
         GoldValue goldValue = new GoldValue();
         goldValue.setEffectiveDate(effectiveDate);
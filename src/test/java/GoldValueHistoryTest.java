@@ -0,0 +1,165 @@
+import org.currencygoldexchangeapp.cache.GoldValueHistory;
+import org.currencygoldexchangeapp.datamodels.GoldValue;
+import org.currencygoldexchangeapp.datamodels.GoldValueSeries;
+import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+import org.currencygoldexchangeapp.handlers.GoldValueAPIHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class GoldValueHistoryTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 6);
+
+    @Mock
+    private GoldValueAPIHandler goldValueAPIHandler;
+
+    private GoldValueHistory goldValueHistory;
+
+    @BeforeEach
+    public void setUp() {
+        Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneId.of("UTC"));
+        goldValueHistory = new GoldValueHistory(goldValueAPIHandler, clock);
+    }
+
+    @Test
+    public void getSeries_whenTodayIsPublished_doesNotFetchAgain() {
+        // Arrange
+        when(goldValueAPIHandler.getGoldValuesForDateRange("2024-03-01", "2024-03-06")).thenReturn(Arrays.asList(
+                createGoldValue("2024-03-01", 262.10),
+                createGoldValue("2024-03-04", 263.09),
+                createGoldValue("2024-03-05", 268.59),
+                createGoldValue("2024-03-06", 273.37)
+        ));
+
+        // Act
+        goldValueHistory.getSeries(LocalDate.of(2024, 3, 1), TODAY);
+        GoldValueSeries series = goldValueHistory.getSeries(LocalDate.of(2024, 3, 4), TODAY);
+
+        // Assert
+        assertEquals(4, series.size());
+        assertEquals(1, goldValueHistory.getFetchCount());
+        assertEquals(TODAY, goldValueHistory.getCoveredEnd());
+    }
+
+    @Test
+    public void getSeries_whenTodayIsNotPublishedYet_fetchesOnlyToday() {
+        // Arrange
+        when(goldValueAPIHandler.getGoldValuesForDateRange("2024-03-01", "2024-03-06")).thenReturn(Arrays.asList(
+                createGoldValue("2024-03-01", 262.10),
+                createGoldValue("2024-03-05", 268.59)
+        ));
+        when(goldValueAPIHandler.getGoldValuesForDateRange("2024-03-06", "2024-03-06"))
+                .thenThrow(DataNotFoundException.class)
+                .thenReturn(Collections.singletonList(createGoldValue("2024-03-06", 273.37)));
+
+        // Act
+        goldValueHistory.getSeries(LocalDate.of(2024, 3, 1), TODAY);
+        goldValueHistory.getSeries(LocalDate.of(2024, 3, 1), TODAY);
+        GoldValueSeries series = goldValueHistory.getSeries(LocalDate.of(2024, 3, 1), TODAY);
+        goldValueHistory.getSeries(LocalDate.of(2024, 3, 1), TODAY);
+
+        // Assert
+        assertEquals(3, series.size());
+        assertEquals(273.37, series.getPrice(2));
+        assertEquals(3, goldValueHistory.getFetchCount());
+        verify(goldValueAPIHandler, times(2)).getGoldValuesForDateRange("2024-03-06", "2024-03-06");
+    }
+
+    @Test
+    public void getSeries_withEarlierStartDate_fetchesOnlyLeadingDays() {
+        // Arrange
+        when(goldValueAPIHandler.getGoldValuesForDateRange("2024-03-01", "2024-03-06")).thenReturn(Arrays.asList(
+                createGoldValue("2024-03-01", 262.10),
+                createGoldValue("2024-03-06", 273.37)
+        ));
+        when(goldValueAPIHandler.getGoldValuesForDateRange("2023-03-06", "2024-02-29")).thenReturn(Arrays.asList(
+                createGoldValue("2023-03-06", 230.00),
+                createGoldValue("2024-02-29", 260.85)
+        ));
+
+        // Act
+        goldValueHistory.getSeries(LocalDate.of(2024, 3, 1), TODAY);
+        GoldValueSeries series = goldValueHistory.getSeries(LocalDate.of(2023, 3, 6), TODAY);
+
+        // Assert
+        assertEquals(4, series.size());
+        assertEquals(LocalDate.of(2023, 3, 6), series.getDate(0));
+        assertEquals(LocalDate.of(2023, 3, 6), goldValueHistory.getCoveredStart());
+        verifyNoMoreInteractions(goldValueAPIHandler);
+    }
+
+    @Test
+    public void getSeries_whenRequestFails_keepsCoverageUnchanged() {
+        // Arrange
+        List<GoldValue> goldValues = Collections.singletonList(createGoldValue("2024-03-06", 273.37));
+        when(goldValueAPIHandler.getGoldValuesForDateRange("2024-03-06", "2024-03-06"))
+                .thenThrow(new RuntimeException("Failed to fetch post."))
+                .thenReturn(goldValues);
+
+        // Act
+        try {
+            goldValueHistory.getSeries(TODAY, TODAY);
+        } catch (RuntimeException ignored) {
+            // The next call has to retry the same range.
+        }
+        GoldValueSeries series = goldValueHistory.getSeries(TODAY, TODAY);
+
+        // Assert
+        assertEquals(1, series.size());
+        assertEquals(TODAY, goldValueHistory.getCoveredStart());
+    }
+
+    @Test
+    public void getSeries_answersCoveredWindowWhileAnotherWindowIsFetched() throws Exception {
+        // Arrange
+        CountDownLatch leadingFetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeadingFetch = new CountDownLatch(1);
+        when(goldValueAPIHandler.getGoldValuesForDateRange("2024-03-01", "2024-03-06"))
+                .thenReturn(Collections.singletonList(createGoldValue("2024-03-06", 273.37)));
+        when(goldValueAPIHandler.getGoldValuesForDateRange("2024-02-01", "2024-02-29")).thenAnswer(invocation -> {
+            leadingFetchStarted.countDown();
+            releaseLeadingFetch.await();
+            return Collections.singletonList(createGoldValue("2024-02-29", 260.85));
+        });
+        goldValueHistory.getSeries(LocalDate.of(2024, 3, 1), TODAY);
+
+        // Act
+        CompletableFuture<GoldValueSeries> leadingRequest = CompletableFuture.supplyAsync(
+                () -> goldValueHistory.getSeries(LocalDate.of(2024, 2, 1), TODAY));
+        leadingFetchStarted.await();
+        GoldValueSeries coveredSeries = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> goldValueHistory.getSeries(LocalDate.of(2024, 3, 4), TODAY));
+        releaseLeadingFetch.countDown();
+
+        // Assert
+        assertEquals(1, coveredSeries.size());
+        assertEquals(2, leadingRequest.get(5, TimeUnit.SECONDS).size());
+        assertEquals(LocalDate.of(2024, 2, 1), goldValueHistory.getCoveredStart());
+    }
+
+    private GoldValue createGoldValue(String effectiveDate, double value) {
+        GoldValue goldValue = new GoldValue();
+        goldValue.setEffectiveDate(effectiveDate);
+        goldValue.setValue(value);
+        return goldValue;
+    }
+}
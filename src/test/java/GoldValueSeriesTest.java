@@ -0,0 +1,119 @@
+import org.currencygoldexchangeapp.datamodels.GoldValue;
+import org.currencygoldexchangeapp.datamodels.GoldValueSeries;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GoldValueSeriesTest {
+    @Test
+    public void fromGoldValues_sortsByDateAndKeepsLastDuplicate() {
+        // Arrange
+        List<GoldValue> goldValues = Arrays.asList(
+                createGoldValue("2024-03-05", 268.59),
+                createGoldValue("2024-02-29", 260.85),
+                createGoldValue("2024-03-01", 262.10),
+                createGoldValue("2024-03-05", 268.60)
+        );
+
+        // Act
+        GoldValueSeries series = GoldValueSeries.fromGoldValues(goldValues);
+
+        // Assert
+        assertEquals(3, series.size());
+        assertEquals(LocalDate.of(2024, 2, 29), series.getDate(0));
+        assertEquals(LocalDate.of(2024, 3, 5), series.getDate(2));
+        assertEquals(268.60, series.getPrice(2));
+    }
+
+    @Test
+    public void withGoldValues_mergesInDateOrderAndReplacesSameDate() {
+        // Arrange
+        GoldValueSeries series = GoldValueSeries.fromGoldValues(Arrays.asList(
+                createGoldValue("2024-03-01", 262.10),
+                createGoldValue("2024-03-05", 268.59)
+        ));
+
+        // Act
+        GoldValueSeries merged = series.withGoldValues(Arrays.asList(
+                createGoldValue("2024-03-06", 273.37),
+                createGoldValue("2024-02-29", 260.85),
+                createGoldValue("2024-03-05", 268.60)
+        ));
+
+        // Assert
+        assertEquals(2, series.size());
+        assertEquals(4, merged.size());
+        assertEquals(LocalDate.of(2024, 2, 29), merged.getDate(0));
+        assertEquals(268.60, merged.getPrice(2));
+        assertEquals(273.37, merged.maxPrice(0, 3));
+    }
+
+    @Test
+    public void maxAndMinPrice_matchLinearScanForEveryRange() {
+        // Arrange
+        Random random = new Random(42);
+        List<GoldValue> goldValues = new ArrayList<>();
+        LocalDate date = LocalDate.of(2023, 1, 2);
+        for (int i = 0; i < 137; i++) {
+            goldValues.add(createGoldValue(date.plusDays(i).toString(), 200 + random.nextDouble() * 100));
+        }
+
+        // Act
+        GoldValueSeries series = GoldValueSeries.fromGoldValues(goldValues);
+
+        // Assert
+        for (int from = 0; from < series.size(); from++) {
+            double expectedMax = Double.NEGATIVE_INFINITY;
+            double expectedMin = Double.POSITIVE_INFINITY;
+            for (int to = from; to < series.size(); to++) {
+                expectedMax = Math.max(expectedMax, series.getPrice(to));
+                expectedMin = Math.min(expectedMin, series.getPrice(to));
+                assertEquals(expectedMax, series.maxPrice(from, to));
+                assertEquals(expectedMin, series.minPrice(from, to));
+            }
+        }
+    }
+
+    @Test
+    public void priceQueriesByDate_skipDaysWithoutPrices() {
+        // Arrange
+        GoldValueSeries series = GoldValueSeries.fromGoldValues(Arrays.asList(
+                createGoldValue("2024-03-01", 262.10),
+                createGoldValue("2024-03-04", 263.09),
+                createGoldValue("2024-03-05", 268.59)
+        ));
+
+        // Act and Assert
+        assertEquals(OptionalDouble.of(263.09), series.getPriceOn(LocalDate.of(2024, 3, 4)));
+        assertTrue(series.getPriceOn(LocalDate.of(2024, 3, 2)).isEmpty());
+        assertEquals(OptionalDouble.of(263.09), series.maxPriceBetween(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 4)));
+        assertEquals(OptionalDouble.of(262.10), series.minPriceBetween(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 10)));
+        assertTrue(series.maxPriceBetween(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 3)).isEmpty());
+    }
+
+    @Test
+    public void maxPrice_withInvalidRange_throwsException() {
+        // Arrange
+        GoldValueSeries series = GoldValueSeries.fromGoldValues(Collections.singletonList(createGoldValue("2024-03-01", 262.10)));
+
+        // Act and Assert
+        assertEquals(262.10, series.maxPrice(0, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> series.maxPrice(0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> GoldValueSeries.fromGoldValues(Collections.emptyList()).minPrice(0, 0));
+    }
+
+    private GoldValue createGoldValue(String effectiveDate, double value) {
+        GoldValue goldValue = new GoldValue();
+        goldValue.setEffectiveDate(effectiveDate);
+        goldValue.setValue(value);
+        return goldValue;
+    }
+}
@@ -0,0 +1,78 @@
+import org.currencygoldexchangeapp.datamodels.CurrencyExchange;
+import org.currencygoldexchangeapp.datamodels.ExchangeRateTable;
+import org.currencygoldexchangeapp.datamodels.GoldValue;
+import org.currencygoldexchangeapp.utils.JSONMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JSONMapperTest {
+    private final JSONMapper jsonMapper = new JSONMapper();
+
+    @Test
+    public void deserializeJsonToCurrencyExchange_readsCodeAndRates() {
+        // Act
+        CurrencyExchange currencyExchange = jsonMapper.deserializeJsonToCurrencyExchange(loadResource("single_currency_response.json"));
+
+        // Assert
+        assertEquals("USD", currencyExchange.getCode());
+        assertEquals(1, currencyExchange.getRates().size());
+        assertEquals("2024-01-16", currencyExchange.getRates().getFirst().getEffectiveDate());
+        assertEquals("dolar amerykański", currencyExchange.getRates().getFirst().getCurrency());
+        assertEquals(3.9570, currencyExchange.getBid());
+        assertEquals(4.0370, currencyExchange.getAsk());
+    }
+
+    @Test
+    public void deserializeJsonToCurrencyExchange_throwsExceptionForInvalidJson() {
+        // Arrange
+        InputStream invalidJson = new ByteArrayInputStream("{\"code\":".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> jsonMapper.deserializeJsonToCurrencyExchange(invalidJson));
+    }
+
+    @Test
+    public void deserializeJsonToExchangeRateTable_readsEveryRate() {
+        // Act
+        ExchangeRateTable table = jsonMapper.deserializeJsonToExchangeRateTable(loadResource("currencies_response.json"));
+
+        // Assert
+        assertEquals("011/C/NBP/2024", table.getNumber());
+        assertEquals("2024-01-16", table.getEffectiveDate());
+        assertEquals(13, table.getRates().size());
+        assertEquals(4.3302, table.getCurrencyExchange("EUR").getBid());
+        assertEquals("euro", table.getCurrencyExchange("EUR").getRates().getFirst().getCurrency());
+    }
+
+    @Test
+    public void deserializeJsonToGoldValueList_readsDatesAndPrices() {
+        // Act
+        List<GoldValue> goldValues = jsonMapper.deserializeJsonToGoldValueList(loadResource("last_gold_values_response.json"));
+
+        // Assert
+        assertEquals(5, goldValues.size());
+        assertEquals("2024-02-29", goldValues.getFirst().getEffectiveDate());
+        assertEquals(273.37, goldValues.getLast().getValue());
+    }
+
+    @Test
+    public void deserializeJsonToGoldValueList_throwsExceptionForInvalidJson() {
+        // Arrange
+        InputStream invalidJson = new ByteArrayInputStream("{\"data\":".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> jsonMapper.deserializeJsonToGoldValueList(invalidJson));
+    }
+
+    private InputStream loadResource(String fileName) {
+        InputStream inputStream = getClass().getClassLoader().getResourceAsStream(fileName);
+        assertNotNull(inputStream, "Failed to load JSON file: " + fileName);
+        return inputStream;
+    }
+}
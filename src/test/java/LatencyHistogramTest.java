@@ -0,0 +1,76 @@
+import org.currencygoldexchangeapp.metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void getPercentileNanos_isWithinBucketPrecision() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        // Act
+        long p50 = histogram.getPercentileNanos(0.50);
+        long p99 = histogram.getPercentileNanos(0.99);
+
+        // Assert
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.25, "p50 was " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 was " + p99);
+        assertEquals(1_000_000, histogram.getPercentileNanos(1.0));
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500.0, histogram.getMeanNanos(), 0.001);
+    }
+
+    @Test
+    void getPercentileNanos_whenEmpty_returnsZero() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act and Assert
+        assertEquals(0, histogram.getPercentileNanos(0.99));
+        assertEquals(0, histogram.getMeanNanos());
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(1.5));
+    }
+
+    @Test
+    void record_handlesExtremeValues() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(0, histogram.getPercentileNanos(0.5));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentileNanos(1.0));
+    }
+
+    @Test
+    void record_fromManyThreads_countsEverySample() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        histogram.record(i);
+                    }
+                });
+            }
+        }
+
+        // Assert
+        assertEquals(80_000, histogram.getCount());
+        assertEquals(9_999, histogram.getMaxNanos());
+    }
+}
@@ -0,0 +1,47 @@
+import org.currencygoldexchangeapp.metrics.LatencyWindow;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LatencyWindowTest {
+
+    @Test
+    public void reportsPercentileOfRecordedSamples() {
+        // Arrange
+        LatencyWindow window = new LatencyWindow(100);
+        for (int i = 1; i <= 100; i++) {
+            window.record(i);
+        }
+
+        // Act & Assert
+        assertEquals(100, window.getCount());
+        assertEquals(50, window.getPercentileNanos(0.50));
+        assertEquals(95, window.getPercentileNanos(0.95));
+        assertEquals(1, window.getPercentileNanos(0));
+    }
+
+    @Test
+    public void forgetsSamplesOlderThanTheWindow() {
+        // Arrange
+        LatencyWindow window = new LatencyWindow(10);
+        for (int i = 0; i < 10; i++) {
+            window.record(1_000_000);
+        }
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            window.record(1_000);
+        }
+
+        // Assert
+        assertEquals(10, window.getCount());
+        assertEquals(1_000, window.getPercentileNanos(0.99));
+    }
+
+    @Test
+    public void rejectsInvalidCapacity() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new LatencyWindow(0));
+    }
+}
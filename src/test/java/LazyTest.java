@@ -0,0 +1,71 @@
+import org.currencygoldexchangeapp.utils.Lazy;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyTest {
+
+    @Test
+    void get_NotCalled_InitializerNotRun() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        Lazy<String> lazy = Lazy.of(() -> "value" + calls.incrementAndGet());
+
+        // Assert
+        assertFalse(lazy.isInitialized());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void get_CalledRepeatedly_InitializerRunsOnce() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        Lazy<String> lazy = Lazy.of(() -> "value" + calls.incrementAndGet());
+
+        // Act
+        String first = lazy.get();
+        String second = lazy.get();
+
+        // Assert
+        assertEquals("value1", first);
+        assertSame(first, second);
+        assertTrue(lazy.isInitialized());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void get_CalledConcurrently_InitializerRunsOnce() throws InterruptedException {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        Lazy<Object> lazy = Lazy.of(() -> {
+            calls.incrementAndGet();
+            return new Object();
+        });
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        lazy.get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+        }
+
+        // Assert
+        assertEquals(1, calls.get());
+    }
+}
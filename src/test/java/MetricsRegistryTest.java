@@ -0,0 +1,85 @@
+import org.currencygoldexchangeapp.metrics.HttpEndpointMetrics;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    void snapshot_containsCountersAndHistogramSummaries() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("lines").add(3);
+        registry.histogram("decode").record(2_000_000);
+
+        // Act
+        Map<String, Object> snapshot = registry.snapshot();
+
+        // Assert
+        assertEquals(3L, snapshot.get("lines"));
+        assertEquals(1L, snapshot.get("decode.count"));
+        assertEquals(2.0, snapshot.get("decode.maxMillis"));
+        assertTrue(snapshot.containsKey("decode.p99Millis"));
+    }
+
+    @Test
+    void gauge_reportsCurrentValue() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        AtomicLong limit = new AtomicLong(4);
+        registry.gauge("nbp.concurrency.limit", limit::get);
+
+        // Act
+        limit.set(6);
+        registry.reset();
+
+        // Assert
+        assertEquals(6L, registry.snapshot().get("nbp.concurrency.limit"));
+    }
+
+    @Test
+    void endpoint_countsRequestsPerStatusCode() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        HttpEndpointMetrics endpoint = registry.endpoint("nbp.tables");
+
+        // Act
+        endpoint.recordResponse(200, System.nanoTime());
+        endpoint.recordResponse(200, System.nanoTime());
+        endpoint.recordResponse(404, System.nanoTime());
+        endpoint.recordFailure(System.nanoTime());
+
+        // Assert
+        assertSame(endpoint, registry.endpoint("nbp.tables"));
+        assertEquals(4, endpoint.getRequestCount());
+        assertEquals(2, endpoint.getStatusCount(200));
+        assertEquals(1, endpoint.getStatusCount(404));
+        assertEquals(1, endpoint.getFailureCount());
+        assertEquals(2L, registry.snapshot().get("nbp.tables.status.200"));
+        assertEquals(4L, registry.snapshot().get("nbp.tables.latency.count"));
+    }
+
+    @Test
+    void registerMBean_exposesMetricsOverJmx() throws Exception {
+        // Arrange
+        MetricsRegistry registry = MetricsRegistry.getDefault();
+        registry.counter("test.jmx").increment();
+
+        // Act
+        registry.registerMBean();
+        registry.registerMBean();
+
+        // Assert
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(MetricsRegistry.OBJECT_NAME);
+        assertTrue(mBeanServer.isRegistered(objectName));
+        assertTrue((Long) mBeanServer.getAttribute(objectName, "test.jmx") >= 1);
+    }
+}
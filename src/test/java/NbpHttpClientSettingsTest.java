@@ -0,0 +1,44 @@
+import org.currencygoldexchangeapp.handlers.NbpHttpClientSettings;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NbpHttpClientSettingsTest {
+
+    @Test
+    public void newHttpClient_appliesSettings() {
+        // Arrange
+        NbpHttpClientSettings settings = new NbpHttpClientSettings(Duration.ofMillis(1500), HttpClient.Version.HTTP_1_1, "virtual");
+
+        // Act
+        HttpClient client = settings.newHttpClient();
+
+        // Assert
+        assertEquals(Optional.of(Duration.ofMillis(1500)), client.connectTimeout());
+        assertEquals(HttpClient.Version.HTTP_1_1, client.version());
+        assertTrue(client.executor().isPresent());
+    }
+
+    @Test
+    public void newHttpClient_withDefaultExecutor_usesClientPool() {
+        // Act
+        HttpClient client = NbpHttpClientSettings.DEFAULT.newHttpClient();
+
+        // Assert
+        assertEquals(Optional.of(Duration.ofSeconds(5)), client.connectTimeout());
+        assertTrue(client.executor().isEmpty());
+    }
+
+    @Test
+    public void newHttpClient_withInvalidExecutor_throwsIllegalArgumentException() {
+        // Arrange
+        NbpHttpClientSettings settings = new NbpHttpClientSettings(Duration.ofSeconds(1), HttpClient.Version.HTTP_2, "0");
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, settings::newHttpClient);
+    }
+}
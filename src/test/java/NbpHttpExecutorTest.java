@@ -0,0 +1,344 @@
+import com.sun.net.httpserver.HttpServer;
+import org.currencygoldexchangeapp.exceptions.ServiceUnavailableException;
+import org.currencygoldexchangeapp.handlers.DeadlinePolicy;
+import org.currencygoldexchangeapp.handlers.NbpHttpExecutor;
+import org.currencygoldexchangeapp.handlers.RetryPolicy;
+import org.currencygoldexchangeapp.metrics.HttpEndpointMetrics;
+import org.currencygoldexchangeapp.metrics.MetricsRegistry;
+import org.currencygoldexchangeapp.utils.AdaptiveConcurrencyLimiter;
+import org.currencygoldexchangeapp.utils.CircuitBreaker;
+import org.currencygoldexchangeapp.utils.JSONMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NbpHttpExecutorTest {
+    private static final HttpRequest REQUEST = HttpRequest.newBuilder(URI.create("http://localhost/api/cenyzlota/2024-01-16")).build();
+    private static final RetryPolicy FAST_RETRIES = new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(1));
+
+    @Mock
+    private HttpClient client;
+    @Mock
+    private HttpResponse<InputStream> okResponse;
+    @Mock
+    private HttpResponse<InputStream> unavailableResponse;
+
+    private final HttpEndpointMetrics endpointMetrics = MetricsRegistry.getDefault().endpoint("test.nbpHttpExecutor");
+    private CircuitBreaker circuitBreaker;
+    private NbpHttpExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        circuitBreaker = new CircuitBreaker(3, Duration.ofMinutes(1), Clock.systemUTC());
+        executor = new NbpHttpExecutor(client, FAST_RETRIES, DeadlinePolicy.DEFAULT, circuitBreaker, new AdaptiveConcurrencyLimiter(), Clock.systemUTC());
+    }
+
+    @Test
+    public void retriesServerErrorsAndConnectionFailures() throws Exception {
+        // Arrange
+        when(okResponse.statusCode()).thenReturn(200);
+        when(unavailableResponse.statusCode()).thenReturn(503);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(unavailableResponse).thenThrow(IOException.class).thenReturn(okResponse);
+        long retriesBefore = MetricsRegistry.getDefault().counter("nbp.retries").sum();
+
+        // Act
+        HttpResponse<InputStream> response = executor.send(REQUEST, endpointMetrics, null, "2024-01-16");
+
+        // Assert
+        assertSame(okResponse, response);
+        verify(client, times(3)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+        assertEquals(retriesBefore + 2, MetricsRegistry.getDefault().counter("nbp.retries").sum());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void doesNotRetryClientErrors() throws Exception {
+        // Arrange
+        when(okResponse.statusCode()).thenReturn(404);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(okResponse);
+
+        // Act
+        HttpResponse<InputStream> response = executor.send(REQUEST, endpointMetrics, null, "2024-01-16");
+
+        // Assert
+        assertEquals(404, response.statusCode());
+        verify(client, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    @Test
+    public void givesUpWhenRetryAfterIsTooLong() throws Exception {
+        // Arrange
+        when(unavailableResponse.statusCode()).thenReturn(429);
+        when(unavailableResponse.headers()).thenReturn(HttpHeaders.of(Map.of("Retry-After", List.of("120")), (name, value) -> true));
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(unavailableResponse);
+
+        // Act
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> executor.send(REQUEST, endpointMetrics, null, "2024-01-16"));
+
+        // Assert
+        assertTrue(exception.getMessage().contains("429"));
+        verify(client, times(1)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    @Test
+    public void openCircuitRejectsCallsWithoutSending() throws Exception {
+        // Arrange
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenThrow(IOException.class);
+        assertThrows(ServiceUnavailableException.class, () -> executor.send(REQUEST, endpointMetrics, null, "2024-01-16"));
+        clearInvocations(client);
+
+        // Act
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> executor.send(REQUEST, endpointMetrics, null, "2024-01-16"));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertTrue(exception.getMessage().startsWith("The NBP API is unavailable"));
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    public void requestsGzipAndDecompressesTheBody() throws Exception {
+        // Arrange
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("[{\"data\":\"2024-01-16\",\"cena\":252.25}]".getBytes(StandardCharsets.UTF_8));
+        }
+        when(okResponse.statusCode()).thenReturn(200);
+        when(okResponse.headers()).thenReturn(HttpHeaders.of(Map.of("Content-Encoding", List.of("gzip")), (name, value) -> true));
+        when(okResponse.body()).thenReturn(new ByteArrayInputStream(compressed.toByteArray()));
+        ArgumentCaptor<HttpRequest> sentRequest = ArgumentCaptor.forClass(HttpRequest.class);
+        when(client.send(sentRequest.capture(), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(okResponse);
+
+        // Act
+        HttpResponse<InputStream> response = executor.send(REQUEST, endpointMetrics, null, "2024-01-16");
+
+        // Assert
+        assertEquals(Optional.of("gzip"), sentRequest.getValue().headers().firstValue("Accept-Encoding"));
+        assertEquals(Optional.of(DeadlinePolicy.DEFAULT.requestTimeout()), sentRequest.getValue().timeout());
+        assertEquals(252.25, new JSONMapper().deserializeJsonToGoldValueList(response.body()).getFirst().getValue());
+    }
+
+    @Test
+    public void keepsAcceptEncodingChosenByCaller() throws Exception {
+        // Arrange
+        HttpRequest identityRequest = HttpRequest.newBuilder(REQUEST.uri()).header("Accept-Encoding", "identity").build();
+        when(okResponse.statusCode()).thenReturn(200);
+        ArgumentCaptor<HttpRequest> sentRequest = ArgumentCaptor.forClass(HttpRequest.class);
+        when(client.send(sentRequest.capture(), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenReturn(okResponse);
+
+        // Act
+        executor.send(identityRequest, endpointMetrics, null, "2024-01-16");
+
+        // Assert
+        assertEquals(List.of("identity"), sentRequest.getValue().headers().allValues("Accept-Encoding"));
+    }
+
+    @Test
+    public void hedgesRequestSlowerThanObservedQuantile() throws Exception {
+        // Arrange
+        HttpEndpointMetrics hedgedEndpoint = MetricsRegistry.getDefault().endpoint("test.hedging.win");
+        NbpHttpExecutor hedgingExecutor = new NbpHttpExecutor(client, FAST_RETRIES, DeadlinePolicy.DEFAULT.withHedging(true),
+                circuitBreaker, new AdaptiveConcurrencyLimiter(), Clock.systemUTC());
+        warmUpHedgeLatency(hedgingExecutor, hedgedEndpoint);
+        // The hedge delay comes from the executor's own window, so clearing the shared metrics does not turn hedging off.
+        hedgedEndpoint.getLatency().reset();
+        CompletableFuture<HttpResponse<InputStream>> stalled = new CompletableFuture<>();
+        doReturn(stalled, CompletableFuture.completedFuture(okResponse))
+                .when(client).sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+        long hedgesBefore = MetricsRegistry.getDefault().counter("nbp.hedges").sum();
+        long winsBefore = MetricsRegistry.getDefault().counter("nbp.hedges.won").sum();
+
+        // Act
+        HttpResponse<InputStream> response = hedgingExecutor.send(REQUEST, hedgedEndpoint, null, "2024-01-16");
+
+        // Assert
+        assertSame(okResponse, response);
+        assertTrue(stalled.isCancelled());
+        assertEquals(hedgesBefore + 1, MetricsRegistry.getDefault().counter("nbp.hedges").sum());
+        assertEquals(winsBefore + 1, MetricsRegistry.getDefault().counter("nbp.hedges.won").sum());
+    }
+
+    @Test
+    public void capsNumberOfHedges() throws Exception {
+        // Arrange
+        HttpEndpointMetrics hedgedEndpoint = MetricsRegistry.getDefault().endpoint("test.hedging.cap");
+        DeadlinePolicy noHedgeRefill = new DeadlinePolicy(Duration.ofSeconds(1), true, 0.95, 20, 0.0);
+        // Latency tolerance is off, so the slower responses do not shrink the concurrency limit and stop the hedges that way.
+        NbpHttpExecutor hedgingExecutor = new NbpHttpExecutor(client, FAST_RETRIES, noHedgeRefill,
+                circuitBreaker, new AdaptiveConcurrencyLimiter(4, 1, 32, 0.75, Double.MAX_VALUE), Clock.systemUTC());
+        warmUpHedgeLatency(hedgingExecutor, hedgedEndpoint);
+        when(client.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()))).thenAnswer(invocation ->
+                CompletableFuture.supplyAsync(() -> okResponse, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS)));
+
+        // Act
+        for (int i = 0; i < 12; i++) {
+            hedgingExecutor.send(REQUEST, hedgedEndpoint, null, "2024-01-16");
+        }
+
+        // Assert: 400 warm-up requests, 12 requests and the initial burst of 10 hedges
+        verify(client, times(422)).sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+    }
+
+    @Test
+    public void cancelsPrimaryWhenInterruptedBeforeHedging() {
+        // Arrange
+        HttpEndpointMetrics hedgedEndpoint = MetricsRegistry.getDefault().endpoint("test.hedging.interrupt");
+        NbpHttpExecutor hedgingExecutor = new NbpHttpExecutor(client, FAST_RETRIES, DeadlinePolicy.DEFAULT.withHedging(true),
+                circuitBreaker, new AdaptiveConcurrencyLimiter(), Clock.systemUTC());
+        warmUpHedgeLatency(hedgingExecutor, hedgedEndpoint);
+        CompletableFuture<HttpResponse<InputStream>> stalled = new CompletableFuture<>();
+        doAnswer(invocation -> {
+            // Interrupted while the request is in flight.
+            Thread.currentThread().interrupt();
+            return stalled;
+        }).when(client).sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+
+        // Act
+        assertThrows(RuntimeException.class, () -> hedgingExecutor.send(REQUEST, hedgedEndpoint, null, "2024-01-16"));
+
+        // Assert
+        assertTrue(Thread.interrupted());
+        assertTrue(stalled.isCancelled());
+        assertEquals(0, hedgingExecutor.getConcurrencyLimiter().getInFlight());
+    }
+
+    private void warmUpHedgeLatency(NbpHttpExecutor hedgingExecutor, HttpEndpointMetrics endpoint) {
+        when(okResponse.statusCode()).thenReturn(200);
+        doReturn(CompletableFuture.completedFuture(okResponse))
+                .when(client).sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream()));
+        // Twice the executor's window of 200, so slow first calls (class loading, JIT) have left it again.
+        for (int i = 0; i < 400; i++) {
+            hedgingExecutor.send(REQUEST, endpoint, null, "2024-01-16");
+        }
+    }
+
+    @Test
+    public void interruptedProbeDoesNotBlockLaterCalls() throws Exception {
+        // Arrange
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ZERO, Clock.systemUTC());
+        NbpHttpExecutor probingExecutor = new NbpHttpExecutor(client, RetryPolicy.NONE, DeadlinePolicy.DEFAULT, breaker,
+                new AdaptiveConcurrencyLimiter(), Clock.systemUTC());
+        when(okResponse.statusCode()).thenReturn(200);
+        when(client.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofInputStream())))
+                .thenThrow(IOException.class)
+                .thenThrow(InterruptedException.class)
+                .thenReturn(okResponse);
+        assertThrows(ServiceUnavailableException.class, () -> probingExecutor.send(REQUEST, endpointMetrics, null, "2024-01-16"));
+
+        // Act
+        assertThrows(RuntimeException.class, () -> probingExecutor.send(REQUEST, endpointMetrics, null, "2024-01-16"));
+        assertTrue(Thread.interrupted());
+        HttpResponse<InputStream> response = probingExecutor.send(REQUEST, endpointMetrics, null, "2024-01-16");
+
+        // Assert
+        assertSame(okResponse, response);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void timesOutWhenTheBodyStallsAfterTheHeaders() throws Exception {
+        // Arrange
+        CountDownLatch releaseBody = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, 1000);
+            OutputStream body = exchange.getResponseBody();
+            body.write("[{\"data\"".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            try {
+                releaseBody.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        HttpClient realClient = HttpClient.newHttpClient();
+        NbpHttpExecutor timingOutExecutor = new NbpHttpExecutor(realClient, RetryPolicy.NONE,
+                new DeadlinePolicy(Duration.ofMillis(300), false, 0.95, 20, 0.05), new CircuitBreaker(), new AdaptiveConcurrencyLimiter(), Clock.systemUTC());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getAddress().getPort() + "/api/cenyzlota/2024-01-16")).build();
+        long startNanos = System.nanoTime();
+
+        // Act
+        try {
+            ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                    () -> timingOutExecutor.send(request, endpointMetrics, null, "2024-01-16"));
+
+            // Assert
+            assertInstanceOf(HttpTimeoutException.class, exception.getCause());
+            assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(5));
+        } finally {
+            releaseBody.countDown();
+            realClient.close();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void forClient_sharesControlsPerClient() {
+        // Act
+        NbpHttpExecutor first = NbpHttpExecutor.forClient(client);
+        NbpHttpExecutor second = NbpHttpExecutor.forClient(client);
+        NbpHttpExecutor otherClient = NbpHttpExecutor.forClient(mock(HttpClient.class));
+
+        // Assert
+        assertSame(first.getCircuitBreaker(), second.getCircuitBreaker());
+        assertSame(first.getConcurrencyLimiter(), second.getConcurrencyLimiter());
+        assertNotSame(first.getCircuitBreaker(), otherClient.getCircuitBreaker());
+    }
+
+    @Test
+    public void forClient_doesNotKeepClientReachable() throws Exception {
+        // Arrange
+        HttpClient temporaryClient = HttpClient.newHttpClient();
+        NbpHttpExecutor.forClient(temporaryClient);
+        WeakReference<HttpClient> reference = new WeakReference<>(temporaryClient);
+        temporaryClient.close();
+        temporaryClient = null;
+
+        // Act
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        // Assert
+        assertNull(reference.get());
+    }
+}
@@ -0,0 +1,130 @@
+import org.currencygoldexchangeapp.handlers.ResultFileWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultFileWriterTest {
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void submit_groupsRowsIntoBatches() throws IOException {
+        // Arrange
+        LocalDate today = LocalDate.of(2024, 3, 14);
+        Clock clock = Clock.fixed(today.atStartOfDay(ZONE).toInstant(), ZONE);
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+
+        // Act
+        try (ResultFileWriter writer = new ResultFileWriter(tempDir, ResultFileWriter.DurabilityMode.SYNC, 64, Duration.ofMillis(50), clock)) {
+            for (int i = 0; i < 500; i++) {
+                results.add(writer.submit("USD", i + 1, "PLN", today, 3.9448, 4.0244));
+            }
+            results.forEach(CompletableFuture::join);
+
+            // Assert
+            assertTrue(results.stream().allMatch(CompletableFuture::join));
+            assertEquals(500, writer.getWrittenRowCount());
+            assertTrue(writer.getBatchCount() < 500, "Rows should be written in batches.");
+        }
+        assertEquals(501, Files.readAllLines(tempDir.resolve("resultQueryToAPI_20240314.csv")).size());
+    }
+
+    @Test
+    public void submit_formatsRowsLikeStringFormat() throws IOException {
+        // Arrange
+        LocalDate today = LocalDate.of(2024, 3, 14);
+        Clock clock = Clock.fixed(today.atStartOfDay(ZONE).toInstant(), ZONE);
+        double[] values = {1.005, 2.5, 0.125, 1234567.891, 3.94485, 1e-5};
+
+        // Act
+        try (ResultFileWriter writer = new ResultFileWriter(tempDir, ResultFileWriter.DurabilityMode.BUFFERED, 16, Duration.ZERO, clock)) {
+            for (double value : values) {
+                writer.submit("EUR", value, "PLN", today, value, value).join();
+            }
+        }
+
+        // Assert
+        List<String> lines = Files.readAllLines(tempDir.resolve("resultQueryToAPI_20240314.csv"));
+        assertEquals("SourceCurrency,Amount,TargetCurrency,Date,Bid,Ask", lines.getFirst());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(String.format("%s,%.2f,%s,%s,%.4f,%.4f", "EUR", values[i], "PLN", today, values[i], values[i]), lines.get(i + 1));
+        }
+    }
+
+    @Test
+    public void submit_rollsOverToNewFileAtMidnight() throws IOException {
+        // Arrange
+        MutableClock clock = new MutableClock(LocalDate.of(2024, 3, 14).atTime(23, 59).toInstant(ZoneOffset.UTC));
+        LocalDate date = LocalDate.of(2024, 3, 1);
+
+        // Act
+        try (ResultFileWriter writer = new ResultFileWriter(tempDir, ResultFileWriter.DurabilityMode.BUFFERED, 16, Duration.ZERO, clock)) {
+            assertTrue(writer.submit("USD", 1, "PLN", date, 3.9448, 4.0244).join());
+            clock.advance(Duration.ofMinutes(2));
+            assertTrue(writer.submit("USD", 1, "PLN", date, 3.9448, 4.0244).join());
+            assertFalse(writer.submit("USD", 1, "PLN", date, 3.9448, 4.0244).join());
+        }
+
+        // Assert
+        assertEquals(2, Files.readAllLines(tempDir.resolve("resultQueryToAPI_20240314.csv")).size());
+        assertEquals(2, Files.readAllLines(tempDir.resolve("resultQueryToAPI_20240315.csv")).size());
+    }
+
+    @Test
+    public void submit_afterClose_failsFuture() {
+        // Arrange
+        ResultFileWriter writer = new ResultFileWriter(tempDir);
+        writer.close();
+
+        // Act
+        CompletableFuture<Boolean> result = writer.submit("USD", 1, "PLN", LocalDate.of(2024, 3, 1), 3.9448, 4.0244);
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import org.currencygoldexchangeapp.exceptions.DataNotFoundException;
+import org.currencygoldexchangeapp.utils.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+    private static final int CALLERS = 8;
+
+    @Test
+    public void execute_ConcurrentCallersForSameKeyShareOneCall() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("USD/2024-01-16", () -> {
+                    executions.incrementAndGet();
+                    awaitQuietly(release);
+                    return "response";
+                })));
+            }
+            waitForCoalescedCallers(singleFlight);
+            release.countDown();
+
+            // Assert
+            for (Future<String> result : results) {
+                assertEquals("response", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, executions.get());
+        assertEquals(CALLERS - 1, singleFlight.getCoalescedCallCount());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    public void execute_FailureIsDeliveredToAllWaiters() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("2024-03-09", () -> {
+                    awaitQuietly(release);
+                    throw new DataNotFoundException();
+                })));
+            }
+            waitForCoalescedCallers(singleFlight);
+            release.countDown();
+
+            // Assert
+            for (Future<String> result : results) {
+                Exception exception = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(DataNotFoundException.class, exception.getCause());
+            }
+        }
+    }
+
+    @Test
+    public void execute_KeyIsReleasedAfterCallFinishes() {
+        // Arrange
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        // Act
+        singleFlight.execute("key", executions::incrementAndGet);
+        int secondResult = singleFlight.execute("key", executions::incrementAndGet);
+
+        // Assert
+        assertEquals(2, secondResult);
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    private static void waitForCoalescedCallers(SingleFlight<?, ?> singleFlight) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getCoalescedCallCount() < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}